@@ -0,0 +1,15 @@
+#!/usr/bin/env bash
+# Allocation per response body for the hot endpoints, before and after the constant/record bodies.
+#
+#   scripts/alloc-bench.sh [path/to/libasyncProfiler.so]
+#
+# Without an argument JMH's GC profiler reports gc.alloc.rate.norm (bytes per operation).
+# With async-profiler, an allocation flame graph per benchmark is written under target/jmh-async.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+ARGS="-prof gc"
+if [[ $# -ge 1 ]]; then
+    ARGS="$ARGS -prof async:libPath=$1;event=alloc;output=flamegraph;dir=target/jmh-async"
+fi
+mvn -B -q -Pjmh test-compile exec:exec -Djmh.args="ResponseBodyBenchmark $ARGS"
@@ -0,0 +1,7 @@
+-- Version counters shared by all instances, behind the catalog and store inventory ETags.
+-- ddl-auto=update adds the table in development; production (ddl-auto=none) runs this once.
+
+CREATE TABLE catalog_version (
+    name VARCHAR(64) NOT NULL PRIMARY KEY,
+    version BIGINT NOT NULL
+);
@@ -0,0 +1,7 @@
+-- Unique customer emails, required by the single-statement customer upsert on checkout.
+-- ddl-auto=update adds the index in development; production (ddl-auto=none) runs this once.
+
+-- Must return no rows before the index can be created; merge any duplicates first.
+SELECT email, COUNT(*) AS customers FROM customers GROUP BY email HAVING COUNT(*) > 1;
+
+ALTER TABLE customers ADD CONSTRAINT uk_customers_email UNIQUE (email);
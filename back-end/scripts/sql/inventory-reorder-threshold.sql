@@ -0,0 +1,4 @@
+-- Per-product reorder thresholds for the low-stock watchlist (NULL means inventory.low-stock.default-threshold).
+-- ddl-auto=update adds the column in development; production (ddl-auto=none) runs this once.
+
+ALTER TABLE inventory ADD COLUMN reorder_threshold INT NULL;
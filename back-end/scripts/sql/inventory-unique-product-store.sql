@@ -0,0 +1,17 @@
+-- One inventory row per product and store, relied on by save/update inventory (insert-and-catch on
+-- uk_inventory_product_store). ddl-auto=update adds the index in development; production (ddl-auto=none)
+-- runs this once, after product-unique-name-sku.sql.
+
+-- Duplicates to merge: the lowest id of each product and store is kept with the summed stock level.
+SELECT product_id, store_id, COUNT(*) AS rows_found FROM inventory GROUP BY product_id, store_id HAVING COUNT(*) > 1;
+
+CREATE TABLE inventory_merge AS
+SELECT product_id, store_id, MIN(id) AS survivor_id, SUM(stock_level) AS stock_level
+FROM inventory GROUP BY product_id, store_id HAVING COUNT(*) > 1;
+
+UPDATE inventory i JOIN inventory_merge m ON m.survivor_id = i.id SET i.stock_level = m.stock_level;
+DELETE i FROM inventory i JOIN inventory_merge m
+    ON m.product_id = i.product_id AND m.store_id = i.store_id AND i.id <> m.survivor_id;
+DROP TABLE inventory_merge;
+
+ALTER TABLE inventory ADD CONSTRAINT uk_inventory_product_store UNIQUE (product_id, store_id);
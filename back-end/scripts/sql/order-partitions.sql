@@ -0,0 +1,85 @@
+-- Monthly RANGE COLUMNS partitioning of order_details (on date) and order_item (on order_date).
+-- Run once, in a maintenance window: each ALTER rebuilds the table. OrderPartitionService adds future
+-- months afterwards and OrderArchiveService drops months once they are archived.
+--
+-- MySQL requirements this script deals with:
+--   * every unique key, including the primary key, must contain the partitioning column;
+--   * partitioned InnoDB tables can neither have nor be referenced by foreign keys.
+
+DELIMITER //
+
+DROP PROCEDURE IF EXISTS drop_order_foreign_keys //
+CREATE PROCEDURE drop_order_foreign_keys()
+BEGIN
+    DECLARE done INT DEFAULT 0;
+    DECLARE tbl VARCHAR(64);
+    DECLARE fk VARCHAR(64);
+    DECLARE keys_cursor CURSOR FOR
+        SELECT TABLE_NAME, CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS
+        WHERE CONSTRAINT_SCHEMA = DATABASE()
+          AND (TABLE_NAME IN ('order_details', 'order_item') OR REFERENCED_TABLE_NAME IN ('order_details', 'order_item'));
+    DECLARE CONTINUE HANDLER FOR NOT FOUND SET done = 1;
+    OPEN keys_cursor;
+    drop_loop: LOOP
+        FETCH keys_cursor INTO tbl, fk;
+        IF done THEN
+            LEAVE drop_loop;
+        END IF;
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` DROP FOREIGN KEY `', fk, '`');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END LOOP;
+    CLOSE keys_cursor;
+END //
+
+-- One partition per month from the oldest order to `months_ahead` months from now, plus an empty p_future.
+DROP PROCEDURE IF EXISTS partition_by_month //
+CREATE PROCEDURE partition_by_month(IN tbl VARCHAR(64), IN col VARCHAR(64), IN months_ahead INT)
+BEGIN
+    DECLARE month_start DATE;
+    DECLARE last_month DATE;
+    SET @oldest = NULL;
+    SET @query = CONCAT('SELECT MIN(`', col, '`) INTO @oldest FROM `', tbl, '`');
+    PREPARE stmt FROM @query;
+    EXECUTE stmt;
+    DEALLOCATE PREPARE stmt;
+
+    SET last_month = DATE_ADD(DATE_FORMAT(CURRENT_DATE, '%Y-%m-01'), INTERVAL months_ahead MONTH);
+    SET month_start = DATE_FORMAT(COALESCE(@oldest, CURRENT_DATE), '%Y-%m-01');
+    SET @ddl = CONCAT('ALTER TABLE `', tbl, '` PARTITION BY RANGE COLUMNS(`', col, '`) (');
+    WHILE month_start <= last_month DO
+        SET @ddl = CONCAT(@ddl, 'PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+                          ' VALUES LESS THAN (''', DATE_ADD(month_start, INTERVAL 1 MONTH), '''), ');
+        SET month_start = DATE_ADD(month_start, INTERVAL 1 MONTH);
+    END WHILE;
+    SET @ddl = CONCAT(@ddl, 'PARTITION p_future VALUES LESS THAN (MAXVALUE))');
+    PREPARE stmt FROM @ddl;
+    EXECUTE stmt;
+    DEALLOCATE PREPARE stmt;
+END //
+
+DELIMITER ;
+
+CALL drop_order_foreign_keys();
+
+-- order_item gets the order date as its partition key. Skip the ADD COLUMN if ddl-auto=update already created it.
+ALTER TABLE order_item ADD COLUMN order_date DATETIME(6) NULL;
+UPDATE order_item oi JOIN order_details od ON od.id = oi.order_id
+SET oi.order_date = od.date
+WHERE oi.order_date IS NULL;
+
+-- Must return 0 before continuing: items without an order cannot be placed in a month.
+SELECT COUNT(*) AS orphaned_items FROM order_item WHERE order_date IS NULL;
+
+ALTER TABLE order_details MODIFY date DATETIME(6) NOT NULL, DROP PRIMARY KEY, ADD PRIMARY KEY (id, date);
+-- Without the foreign key to product, product deletion checks order_item by product_id itself (idx_order_item_product);
+-- the index the dropped foreign key left on product_id is redundant afterwards and can be dropped.
+ALTER TABLE order_item MODIFY order_date DATETIME(6) NOT NULL, DROP PRIMARY KEY, ADD PRIMARY KEY (id, order_date),
+    ADD INDEX idx_order_item_order (order_id), ADD INDEX idx_order_item_product (product_id);
+
+CALL partition_by_month('order_details', 'date', 3);
+CALL partition_by_month('order_item', 'order_date', 3);
+
+DROP PROCEDURE drop_order_foreign_keys;
+DROP PROCEDURE partition_by_month;
@@ -0,0 +1,27 @@
+-- Unique product names and SKUs, relied on by add/update product (insert-and-catch on uk_product_name / uk_product_sku).
+-- ddl-auto=update adds the indexes in development; production (ddl-auto=none) runs this once, then
+-- inventory-unique-product-store.sql, since merging products can leave duplicate inventory rows behind.
+
+-- Duplicates to merge: each product repeating the name or SKU of a lower id is merged into the lowest such id.
+SELECT name, COUNT(*) AS products FROM product GROUP BY name HAVING COUNT(*) > 1;
+SELECT sku, COUNT(*) AS products FROM product WHERE sku IS NOT NULL GROUP BY sku HAVING COUNT(*) > 1;
+
+CREATE TABLE product_merge (duplicate_id BIGINT PRIMARY KEY, survivor_id BIGINT NOT NULL);
+INSERT INTO product_merge (duplicate_id, survivor_id)
+SELECT p.id, MIN(o.id) FROM product p JOIN product o ON o.id < p.id AND (o.name = p.name OR o.sku = p.sku)
+GROUP BY p.id;
+-- A survivor that is itself a duplicate (same name as one product, same SKU as another) points at the final one.
+-- Repeat until it updates no rows.
+UPDATE product_merge m JOIN product_merge s ON s.duplicate_id = m.survivor_id SET m.survivor_id = s.survivor_id;
+
+UPDATE inventory i JOIN product_merge m ON m.duplicate_id = i.product_id SET i.product_id = m.survivor_id;
+UPDATE order_item oi JOIN product_merge m ON m.duplicate_id = oi.product_id SET oi.product_id = m.survivor_id;
+DELETE p FROM product p JOIN product_merge m ON m.duplicate_id = p.id;
+
+-- Reviews are in MongoDB: repoint them before dropping the mapping, for each row of
+-- SELECT duplicate_id, survivor_id FROM product_merge;
+-- db.reviews.updateMany({productId: <duplicate_id>}, {$set: {productId: <survivor_id>}})
+DROP TABLE product_merge;
+
+ALTER TABLE product ADD CONSTRAINT uk_product_name UNIQUE (name);
+ALTER TABLE product ADD CONSTRAINT uk_product_sku UNIQUE (sku);
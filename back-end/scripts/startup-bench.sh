@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Measures time from JVM launch to the first successful GET /product.
+#
+#   scripts/startup-bench.sh [plain|fast] [runs]
+#
+# plain: target/code-0.0.1-SNAPSHOT.jar with the prod profile (mvn package)
+# fast:  target/extracted with AOT and the CDS archive (mvn -Pfast-start package)
+set -euo pipefail
+
+MODE=${1:-plain}
+RUNS=${2:-5}
+PORT=${PORT:-8080}
+URL="http://localhost:${PORT}/product"
+cd "$(dirname "$0")/.."
+
+case "$MODE" in
+    plain)
+        WORKDIR=target
+        CMD=(java -Dspring.profiles.active=prod -Dserver.port="$PORT" -jar code-0.0.1-SNAPSHOT.jar)
+        ;;
+    fast)
+        WORKDIR=target/extracted
+        CMD=(java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true
+             -Dspring.profiles.active=prod -Dserver.port="$PORT" -jar code-0.0.1-SNAPSHOT.jar)
+        ;;
+    *)
+        echo "usage: $0 [plain|fast] [runs]" >&2
+        exit 2
+        ;;
+esac
+
+total=0
+for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    (cd "$WORKDIR" && exec "${CMD[@]}") > "target/startup-bench-$MODE-$run.log" 2>&1 &
+    pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)" = "200" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "run $run: application exited, see target/startup-bench-$MODE-$run.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    total=$(( total + elapsed ))
+    echo "run $run: first 200 from /product after ${elapsed} ms"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+done
+echo "$MODE: mean $(( total / RUNS )) ms over $RUNS runs"
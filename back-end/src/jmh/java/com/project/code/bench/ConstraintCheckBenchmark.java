@@ -0,0 +1,89 @@
+package com.project.code.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Check-then-insert (SELECT by name, then INSERT) against insert-and-catch on the unique product name,
+// one write per operation. Needs a scratch database with the product table and its uk_product_name index:
+// mvn -Pjmh test-compile exec:exec -Djmh.args="ConstraintCheckBenchmark -jvmArgs -Dbench.jdbc.url=jdbc:mysql://localhost:3306/bench"
+// (-Dbench.jdbc.user / -Dbench.jdbc.password default to root / empty). Every row written is removed afterwards.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstraintCheckBenchmark {
+
+    // Share of writes that repeat an earlier name and must be rejected.
+    @Param({"0.0", "0.2"})
+    private double duplicateRatio;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private SplittableRandom random;
+    private String prefix;
+    private int written;
+
+    @Setup(Level.Trial)
+    public void connect() {
+        dataSource = new SingleConnectionDataSource(System.getProperty("bench.jdbc.url"),
+                System.getProperty("bench.jdbc.user", "root"), System.getProperty("bench.jdbc.password", ""), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        random = new SplittableRandom(42);
+        prefix = "bench-" + Long.toString(System.nanoTime(), 36) + "-";
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM product WHERE name LIKE ?", prefix + "%");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public boolean checkThenInsert() {
+        String name = nextName();
+        Integer existing = jdbcTemplate.query("SELECT 1 FROM product WHERE name = ? LIMIT 1",
+                rs -> rs.next() ? 1 : null, name);
+        return existing == null && insert(name);
+    }
+
+    @Benchmark
+    public boolean insertAndCatch() {
+        return insert(nextName());
+    }
+
+    // Duplicates repeat an earlier name of the same run; the sequence is identical for both approaches.
+    private String nextName() {
+        int key = written > 0 && random.nextDouble() < duplicateRatio ? random.nextInt(written) : written;
+        written++;
+        return prefix + key;
+    }
+
+    private boolean insert(String name) {
+        try {
+            jdbcTemplate.update("INSERT INTO product (name, category, price, sku) VALUES (?, 'Benchmark', 1.0, ?)",
+                    name, name);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
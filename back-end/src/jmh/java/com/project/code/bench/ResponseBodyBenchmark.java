@@ -0,0 +1,81 @@
+package com.project.code.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.project.code.Controller.JsonResponses;
+import com.project.code.model.OrderPlacedResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Body-writing cost of the hot endpoints before and after typed records and constant bodies, all on the
+// application's mapper (Blackbird, as JacksonConfig registers it), plus one pair writing the same record with and
+// without Blackbird.
+// Run with the GC profiler (mvn -Pjmh test-compile exec:exec) and compare gc.alloc.rate.norm per pair.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseBodyBenchmark {
+
+    private final ObjectMapper plain = new ObjectMapper();
+    private final ObjectMapper blackbird = new ObjectMapper().registerModule(new BlackbirdModule());
+    private final OutputStream sink = OutputStream.nullOutputStream();
+    private long orderId = 1_000_000;
+
+    @Benchmark
+    public void validateMapped() throws IOException {
+        ResponseEntity<Boolean> response = ResponseEntity.ok(orderId++ % 2 == 0);
+        blackbird.writeValue(sink, response.getBody());
+    }
+
+    @Benchmark
+    public void validateConstant() throws IOException {
+        sink.write(JsonResponses.bool(orderId++ % 2 == 0).getBody());
+    }
+
+    @Benchmark
+    public void messageMapped() throws IOException {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Product added successfully");
+        blackbird.writeValue(sink, ResponseEntity.ok(response).getBody());
+    }
+
+    @Benchmark
+    public void messageConstant() throws IOException {
+        sink.write(JsonResponses.PRODUCT_ADDED.getBody());
+    }
+
+    @Benchmark
+    public void orderPlacedMapped() throws IOException {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Order placed successfully");
+        response.put("orderId", String.valueOf(orderId++));
+        blackbird.writeValue(sink, ResponseEntity.ok(response).getBody());
+    }
+
+    @Benchmark
+    public void orderPlacedRecord() throws IOException {
+        blackbird.writeValue(sink, ResponseEntity.ok(new OrderPlacedResponse("Order placed successfully", String.valueOf(orderId++))).getBody());
+    }
+
+    @Benchmark
+    public void orderPlacedRecordPlain() throws IOException {
+        plain.writeValue(sink, ResponseEntity.ok(new OrderPlacedResponse("Order placed successfully", String.valueOf(orderId++))).getBody());
+    }
+}
@@ -3,9 +3,11 @@ package com.project.code;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan("com.project.code")
+@EnableScheduling
 public class CodeApplication {
 
 	public static void main(String[] args) {
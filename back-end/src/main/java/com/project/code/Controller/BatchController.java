@@ -0,0 +1,59 @@
+package com.project.code.Controller;
+
+import com.project.code.config.BatchDispatcher;
+import com.project.code.model.BatchRequestItem;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api")
+public class BatchController {
+// 1. Set Up the Controller Class:
+//    - Annotate the class with `@RestController` and map it to `/api`.
+//    - Lets the front end send the calls of one page in a single HTTP request.
+
+    @Autowired
+    private BatchDispatcher batchDispatcher;
+
+    @Value("${api.batch.max-requests:50}")
+    private int maxRequests;
+
+// 2. Define the `batch` Method:
+//    - Annotate with `@PostMapping("/batch")`; the body is a list of `{method, path, body}` sub-requests.
+//    - Each sub-request is handled by the matching controller as if it had been sent on its own.
+//    - Returns `responses`: one `{status, body}` per sub-request, in request order.
+//    - Reads run concurrently; a write waits for everything before it, and everything after it waits for the write.
+//    - Each sub-request is admitted against its own endpoint class; one that is shed answers 503 inside the batch.
+//    - Sub-requests not started within `api.batch.timeout-ms` answer 503 "Not executed" and can be retried as they are.
+//    - Rejects the whole batch with 400 when it is empty, too large or contains a malformed sub-request.
+
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> batch(@RequestBody List<BatchRequestItem> requests,
+                                                     HttpServletRequest request, HttpServletResponse response) {
+        Map<String, Object> body = new HashMap<>();
+        if (requests == null || requests.isEmpty() || requests.size() > maxRequests) {
+            body.put("message", "A batch must contain between 1 and " + maxRequests + " requests");
+            return ResponseEntity.badRequest().body(body);
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            String error = batchDispatcher.validate(requests.get(i));
+            if (error != null) {
+                body.put("message", "Request " + i + ": " + error);
+                return ResponseEntity.badRequest().body(body);
+            }
+        }
+        body.put("responses", batchDispatcher.dispatch(requests, request, response));
+        return ResponseEntity.ok(body);
+    }
+}
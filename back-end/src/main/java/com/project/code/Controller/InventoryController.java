@@ -1,5 +1,23 @@
 package com.project.code.Controller;
 
+import com.project.code.Service.CatalogVersionService;
+import com.project.code.Service.ConstraintViolations;
+import com.project.code.Service.FacetService;
+import com.project.code.Service.InventorySnapshotService;
+import com.project.code.Service.LowStockIndex;
+import com.project.code.Service.ProductDeletionService;
+import com.project.code.Service.StockEventHub;
+import com.project.code.Service.StockMatrix;
+import com.project.code.Service.StoreInventorySnapshot;
+import com.project.code.model.LowStockEntry;
+import com.project.code.model.StockChangeEvent;
+import com.project.code.model.StoreProductView;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 @RestController
 @RequestMapping("/inventory")
 @Autowired
@@ -15,12 +33,37 @@ public class InventoryController {
 //      - `InventoryRepository` will handle CRUD operations related to the inventory.
 //      - `ServiceClass` will help with the validation logic (e.g., validating product IDs and inventory data).
 
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private InventorySnapshotService inventorySnapshotService;
+
+    @Autowired
+    private StockEventHub stockEventHub;
+
+    @Autowired
+    private LowStockIndex lowStockIndex;
+
+    @Autowired
+    private FacetService facetService;
+
+    @Autowired
+    private StockMatrix stockMatrix;
+
+    @Autowired
+    private ProductDeletionService productDeletionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
 
 // 3. Define the `updateInventory` Method:
 //    - This method handles HTTP PUT requests to update inventory for a product.
 //    - It takes a `CombinedRequest` (containing `Product` and `Inventory`) in the request body.
 //    - The product ID is validated, and if valid, the inventory is updated in the database.
 //    - If the inventory exists, update it and return a success message. If not, return a message indicating no data available.
+//    - The product ID is only checked when no inventory row was found, to pick the error message.
 
     public ResponseEntity<Map<String, String>> updateInventory(@RequestBody CombinedRequest combinedRequest) {
         Map<String, String> response = new HashMap<>();
@@ -28,18 +71,19 @@ public class InventoryController {
         Product product = combinedRequest.getProduct();
         Inventory inventory = combinedRequest.getInventory();
 
-        // Validate product ID
-        if (!serviceClass.validateProductId(product.getId())) {
+        // Get existing inventory
+        Inventory existingInventory = serviceClass.getInventoryId(inventory);
+        if (existingInventory == null && !serviceClass.validateProductId(product.getId())) {
             response.put("message", "Invalid product ID");
             return ResponseEntity.badRequest().body(response);
         }
-
-        // Get existing inventory
-        Inventory existingInventory = serviceClass.getInventoryId(inventory);
         if (existingInventory != null) {
             // Update inventory details
-            existingInventory.setQuantity(inventory.getQuantity());
+            Integer previousLevel = existingInventory.getStockLevel();
+            existingInventory.setStockLevel(inventory.getStockLevel());
             inventoryRepository.save(existingInventory);
+            eventPublisher.publishEvent(new StockChangeEvent(existingInventory.getStore().getId(),
+                    existingInventory.getProduct().getId(), previousLevel, existingInventory.getStockLevel()));
 
             response.put("message", "Inventory updated successfully");
             return ResponseEntity.ok(response);
@@ -53,18 +97,24 @@ public class InventoryController {
 //    - This method handles HTTP POST requests to save a new inventory entry.
 //    - It accepts an `Inventory` object in the request body.
 //    - It first validates whether the inventory already exists. If it exists, it returns a message stating so. If it doesn’t exist, it saves the inventory and returns a success message.
+//    - The unique (product_id, store_id) constraint does the existence check as part of the insert.
 
     public ResponseEntity<Map<String, String>> saveInventory(@RequestBody Inventory inventory) {
         Map<String, String> response = new HashMap<>();
 
-        // Validate if inventory already exists
-        if (!serviceClass.validateInventory(inventory)) {
-            response.put("message", "Inventory already exists for this product in the specified store");
-            return ResponseEntity.badRequest().body(response);
-        }
-
         // Save new inventory
-        inventoryRepository.save(inventory);
+        try {
+            inventoryRepository.saveAndFlush(inventory);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.violates(e, ConstraintViolations.INVENTORY_PRODUCT_STORE)) {
+                response.put("message", "Inventory already exists for this product in the specified store");
+                return ResponseEntity.badRequest().body(response);
+            }
+            response.put("message", "Data integrity violation: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        eventPublisher.publishEvent(new StockChangeEvent(inventory.getStore().getId(),
+                inventory.getProduct().getId(), null, inventory.getStockLevel()));
         response.put("message", "Inventory saved successfully");
         return ResponseEntity.ok(response);
     }
@@ -73,19 +123,76 @@ public class InventoryController {
 //    - This method handles HTTP GET requests to retrieve products for a specific store.
 //    - It uses the `storeId` as a path variable and fetches the list of products from the database for the given store.
 //    - The products are returned in a `Map` with the key `"products"`.
+//    - Answers `If-None-Match` with 304 from the store's version counter, before any query runs.
+//    - Otherwise serves the pre-serialized bytes of the store's snapshot; no query runs unless the snapshot is stale.
+//    - Returns 404 for an unknown store.
+
+    @GetMapping("/{storeId}")
+    public ResponseEntity<byte[]> getAllProducts(@PathVariable Long storeId, WebRequest request) {
+        if (request.checkNotModified(catalogVersionService.storeETag(storeId))) {
+            return null;
+        }
+        StoreInventorySnapshot snapshot = inventorySnapshotService.snapshot(storeId);
+        if (snapshot == null) {
+            return JsonResponses.STORE_NOT_FOUND;
+        }
+        // While another request rebuilds, the previous snapshot is served under its own tag.
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.getEtag())
+                .body(snapshot.getJson());
+    }
 
-    public ResponseEntity<Map<String, Object>> getAllProducts(@PathVariable Long storeId) {
+// 5a. Define the `streamStockEvents` Method:
+//    - This method handles HTTP GET requests for a Server-Sent Events stream of stock changes in a store.
+//    - Pushes `stock` events with the changed levels, `resync` when the client should reload the listing, and heartbeats.
+
+    @GetMapping(path = "/{storeId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStockEvents(@PathVariable Long storeId,
+                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return stockEventHub.subscribe(storeId, lastEventId != null);
+    }
+
+// 5b. Define the `getLowStock` Method:
+//    - This method handles HTTP GET requests for the low-stock watchlist of a store.
+//    - Returns up to `limit` products at or below their reorder threshold, most urgent first, with the key `"lowStock"`.
+//    - Served from the in-memory index; cost is proportional to `limit`, not to the store's inventory.
+
+    @GetMapping("/{storeId}/low-stock")
+    public ResponseEntity<Map<String, Object>> getLowStock(@PathVariable Long storeId, @RequestParam(defaultValue = "20") int limit) {
         Map<String, Object> response = new HashMap<>();
-        List<Product> products = productRepository.findByStoreId(storeId);
-        response.put("products", products);
+        List<LowStockEntry> lowStock = lowStockIndex.lowStock(storeId, Math.max(0, Math.min(limit, 500)));
+        response.put("lowStock", lowStock);
+        return ResponseEntity.ok(response);
+    }
+
+// 5c. Define the `updateReorderThreshold` Method:
+//    - This method handles HTTP PUT requests to set the reorder threshold of a product in a store.
+//    - Omitting `threshold` restores the default threshold.
+
+    @PutMapping("/{storeId}/threshold/{productId}")
+    public ResponseEntity<Map<String, String>> updateReorderThreshold(@PathVariable Long storeId, @PathVariable Long productId,
+                                                                      @RequestParam(required = false) Integer threshold) {
+        Map<String, String> response = new HashMap<>();
+        Inventory inventory = inventoryRepository.findByProduct_IdAndStore_Id(productId, storeId);
+        if (inventory == null) {
+            response.put("message", "No inventory data available for the given product and store");
+            return ResponseEntity.badRequest().body(response);
+        }
+        inventory.setReorderThreshold(threshold);
+        inventoryRepository.save(inventory);
+        lowStockIndex.updateThreshold(storeId, productId, threshold, inventory.getStockLevel());
+        response.put("message", "Reorder threshold updated successfully");
         return ResponseEntity.ok(response);
     }
 
 // 6. Define the `getProductName` Method:
 //    - This method handles HTTP GET requests to filter products by category and name.
 //    - If either the category or name is `"null"`, adjust the filtering logic accordingly.
-//    - Return the filtered products in the response with the key `"product"`.
+//    - Return the filtered products in the response with the key `"product"`, each with its stock level in the store.
+//    - The store's category counts and the price histogram of the selected category go under the key `"facets"`.
 
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> getProductName(@PathVariable String category, @PathVariable String name, @PathVariable Long storeId) {
         Map<String, Object> response = new HashMap<>();
         List<Product> products;
@@ -100,7 +207,8 @@ public class InventoryController {
             products = productRepository.findByStoreId(storeId);
         }
 
-        response.put("product", products);
+        response.put("product", withStockLevels(products, storeId));
+        response.put("facets", facetService.storeFacets(storeId, category.equals("null") ? null : category));
         return ResponseEntity.ok(response);
     }
 
@@ -108,35 +216,45 @@ public class InventoryController {
 // 7. Define the `searchProduct` Method:
 //    - This method handles HTTP GET requests to search for products by name within a specific store.
 //    - It uses `name` and `storeId` as parameters and searches for products that match the `name` in the specified store.
-//    - The search results are returned in the response with the key `"product"`.
+//    - The search results are returned in the response with the key `"product"`, each with its stock level in the store.
 
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> searchProduct(@PathVariable String name, @PathVariable Long storeId) {
         Map<String, Object> response = new HashMap<>();
         List<Product> products = productRepository.findByNameLike(storeId, name);
-        response.put("product", products);
+        response.put("product", withStockLevels(products, storeId));
         return ResponseEntity.ok(response);
     }
 
+    // Stock levels come from the store's snapshot, the same source as the full listing.
+    private List<StoreProductView> withStockLevels(List<Product> products, Long storeId) {
+        StoreInventorySnapshot snapshot = inventorySnapshotService.snapshot(storeId);
+        return products.stream().map(product -> {
+            int stockLevel = snapshot == null ? -1 : snapshot.stockLevel(product.getId());
+            return StoreProductView.of(product, stockLevel < 0 ? null : stockLevel);
+        }).toList();
+    }
+
 // 8. Define the `removeProduct` Method:
 //    - This method handles HTTP DELETE requests to delete a product by its ID.
 //    - It first validates if the product exists. If it does, it deletes the product from the `ProductRepository` and also removes the related inventory entry from the `InventoryRepository`.
 //    - Returns a success message with the key `"message"` indicating successful deletion.
+//    - An unknown id deletes nothing and is reported as invalid, without a separate existence query.
 
     public ResponseEntity<Map<String, String>> removeProduct(@PathVariable Long id) {
         Map<String, String> response = new HashMap<>();
 
-        // Validate product ID
-        if (!serviceClass.validateProductId(id)) {
+        // Delete the product and its inventory with set-based statements; reviews follow asynchronously
+        ProductDeletionService.Result result = productDeletionService.deleteProducts(List.of(id));
+        if (!result.notDeleted().isEmpty()) {
+            response.put("message", "Product is still referenced by orders and was not deleted");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        if (result.deleted() == 0) {
             response.put("message", "Invalid product ID");
             return ResponseEntity.badRequest().body(response);
         }
 
-        // Delete inventory associated with the product
-        inventoryRepository.deleteByProductId(id);
-
-        // Delete the product
-        productRepository.deleteById(id);
-
         response.put("message", "Product deleted successfully");
         return ResponseEntity.ok(response);
     }
@@ -146,14 +264,25 @@ public class InventoryController {
 //    - This method handles HTTP GET requests to validate if a specified quantity of a product is available in stock for a given store.
 //    - It checks the inventory for the product in the specified store and compares it to the requested quantity.
 //    - If sufficient stock is available, return `true`; otherwise, return `false`.
-
-    public ResponseEntity<Boolean> validateQuantity(@PathVariable Long productId, @PathVariable Long storeId, @PathVariable Integer quantity) {
+//    - Answered from the in-memory stock matrix when it says the stock is there.
+//    - Otherwise (matrix not ready, or possibly stale) the inventory row decides, and corrects the matrix.
+//    - Not read-only: the row is read on the primary, since a lagging replica would put back a level already sold.
+//    - The body is one of two pre-serialized constants (`true`/`false`).
+
+    @GetMapping("/validate/{quantity}/{storeId}/{productId}")
+    @Transactional
+    public ResponseEntity<byte[]> validateQuantity(@PathVariable Long productId, @PathVariable Long storeId, @PathVariable Integer quantity) {
+        Boolean available = stockMatrix.isAvailable(storeId, productId, quantity);
+        if (Boolean.TRUE.equals(available)) {
+            return JsonResponses.TRUE;
+        }
+        long readStartedAt = stockMatrix.sequence();
         Inventory inventory = inventoryRepository.findByProduct_IdAndStore_Id(productId, storeId);
-        if (inventory != null && inventory.getQuantity() >= quantity) {
-            return ResponseEntity.ok(true);
-        } else {
-            return ResponseEntity.ok(false);
+        Integer stockLevel = inventory == null ? null : inventory.getStockLevel();
+        if (available != null) {
+            stockMatrix.correct(storeId, productId, stockLevel, readStartedAt);
         }
+        return JsonResponses.bool(stockLevel != null && stockLevel >= quantity);
     }
 
 }
@@ -0,0 +1,49 @@
+package com.project.code.Controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.code.model.MessageResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+// Responses whose body never changes, serialized once at class load. Returning one of these writes the bytes
+// as they are: no map, no serializer call, no buffer per request. ResponseEntity headers are read-only,
+// so the instances are safe to share.
+public final class JsonResponses {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static final ResponseEntity<byte[]> TRUE = json(HttpStatus.OK, "true");
+    public static final ResponseEntity<byte[]> FALSE = json(HttpStatus.OK, "false");
+
+    public static final ResponseEntity<byte[]> PRODUCT_ADDED = message(HttpStatus.OK, "Product added successfully");
+    public static final ResponseEntity<byte[]> PRODUCT_EXISTS = message(HttpStatus.BAD_REQUEST, "Product already exists");
+    public static final ResponseEntity<byte[]> PRODUCT_NOT_FOUND = message(HttpStatus.NOT_FOUND, "Product not found");
+    public static final ResponseEntity<byte[]> STORE_NOT_FOUND = message(HttpStatus.NOT_FOUND, "Store not found");
+
+    private JsonResponses() {
+    }
+
+    public static ResponseEntity<byte[]> bool(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    private static ResponseEntity<byte[]> message(HttpStatus status, String message) {
+        try {
+            return body(status, MAPPER.writeValueAsBytes(new MessageResponse(message)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ResponseEntity<byte[]> json(HttpStatus status, String json) {
+        return body(status, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResponseEntity<byte[]> body(HttpStatus status, byte[] body) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).contentLength(body.length).body(body);
+    }
+}
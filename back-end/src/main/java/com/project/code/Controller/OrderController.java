@@ -0,0 +1,66 @@
+package com.project.code.Controller;
+
+import com.project.code.Service.OrderReceiptService;
+import com.project.code.model.OrderReceipt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/orders")
+public class OrderController {
+// 1. Set Up the Controller Class:
+//    - Order lookups for order pages, support and receipt reprints, all served from the order read model.
+
+    @Autowired
+    private OrderReceiptService orderReceiptService;
+
+// 2. Define the `getOrder` Method:
+//    - Annotate with `@GetMapping("/{orderId}")` to return an order with its line items, customer and store.
+//    - Return the order in a `Map<String, Object>` with key `order`, or 404 with key `message`.
+
+    @GetMapping("/{orderId}")
+    public ResponseEntity<Map<String, Object>> getOrder(@PathVariable Long orderId) {
+        Map<String, Object> response = new HashMap<>();
+        Optional<OrderReceipt> receipt = orderReceiptService.receipt(orderId);
+        if (receipt.isEmpty()) {
+            response.put("message", "Order not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        response.put("order", receipt.get());
+        return ResponseEntity.ok(response);
+    }
+
+// 3. Define the `printReceipt` Method:
+//    - Annotate with `@GetMapping("/{orderId}/receipt")` to return a plain-text receipt for reprinting.
+
+    @GetMapping(path = "/{orderId}/receipt", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> printReceipt(@PathVariable Long orderId) {
+        Optional<OrderReceipt> receipt = orderReceiptService.receipt(orderId);
+        if (receipt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Order not found\n");
+        }
+        OrderReceipt order = receipt.get();
+        StringBuilder text = new StringBuilder(256);
+        text.append(order.storeName()).append('\n')
+                .append(order.storeAddress()).append("\n\n")
+                .append("Order #").append(order.orderId()).append("  ").append(order.date()).append('\n')
+                .append("Customer: ").append(order.customerName()).append('\n')
+                .append('\n');
+        for (OrderReceipt.Line line : order.items()) {
+            text.append(String.format("%-30.30s %4d x %9.2f %10.2f%n",
+                    line.productName(), line.quantity(), line.unitPrice(), line.lineTotal()));
+        }
+        text.append(String.format("%n%-46s %10.2f%n", "Total", order.totalPrice()));
+        return ResponseEntity.ok(text.toString());
+    }
+}
@@ -1,5 +1,30 @@
 package com.project.code.Controller;
 
+import com.project.code.Service.CatalogVersionService;
+import com.project.code.Service.CoPurchaseIndex;
+import com.project.code.Service.ConstraintViolations;
+import com.project.code.Service.FacetService;
+import com.project.code.Service.InventorySnapshotService;
+import com.project.code.Service.PriceIndex;
+import com.project.code.Service.ProductDeletionService;
+import com.project.code.Service.ProductDetailService;
+import com.project.code.Service.SingleFlight;
+import com.project.code.Service.StoreInventorySnapshot;
+import com.project.code.model.InventoryView;
+import com.project.code.model.ProductAdminView;
+import com.project.code.model.ProductChangeEvent;
+import com.project.code.model.ProductView;
+import com.project.code.model.MessageResponse;
+import com.project.code.model.ProductPageView;
+import com.project.code.model.ProductResponse;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
 @Autowired
 @RestController
 @RequestMapping("/product")
@@ -15,6 +40,33 @@ public class ProductController {
 //        - `ServiceClass` for product validation and business logic.
 //        - `InventoryRepository` for managing the inventory linked to products.
 
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private FacetService facetService;
+
+    @Autowired
+    private PriceIndex priceIndex;
+
+    @Autowired
+    private InventorySnapshotService inventorySnapshotService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private ProductDeletionService productDeletionService;
+
+    @Autowired
+    private ProductDetailService productDetailService;
+
+    @Autowired
+    private CoPurchaseIndex coPurchaseIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
 
 // 3. Define the `addProduct` Method:
 //    - Annotate with `@PostMapping` to handle POST requests for adding a new product.
@@ -22,25 +74,22 @@ public class ProductController {
 //    - Validate product existence using `validateProduct()` in `ServiceClass`.
 //    - Save the valid product using `save()` method of `ProductRepository`.
 //    - Catch exceptions (e.g., `DataIntegrityViolationException`) and return appropriate error message.
+//    - No pre-check query: the unique name and SKU constraints reject duplicates, answered with the same 400 as before.
+//    - The success and duplicate bodies are pre-serialized constants.
 
 @PostMapping
-public ResponseEntity<Map<String, String>> addProduct(@RequestBody Product product) {
-    Map<String, String> response = new HashMap<>();
-
-    // Validate product
-    if (!serviceClass.validateProduct(product)) {
-        response.put("message", "Product already exists");
-        return ResponseEntity.badRequest().body(response);
-    }
-
+public ResponseEntity<?> addProduct(@RequestBody Product product) {
     try {
         // Save product
-        productRepository.save(product);
-        response.put("message", "Product added successfully");
-        return ResponseEntity.ok(response);
+        productRepository.saveAndFlush(product);
+        eventPublisher.publishEvent(ProductChangeEvent.saved(product));
+        return JsonResponses.PRODUCT_ADDED;
     } catch (DataIntegrityViolationException e) {
-        response.put("message", "Data integrity violation: " + e.getMessage());
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        if (ConstraintViolations.violates(e, ConstraintViolations.PRODUCT_NAME)
+                || ConstraintViolations.violates(e, ConstraintViolations.PRODUCT_SKU)) {
+            return JsonResponses.PRODUCT_EXISTS;
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Data integrity violation: " + e.getMessage()));
     }
 }
 
@@ -49,18 +98,22 @@ public ResponseEntity<Map<String, String>> addProduct(@RequestBody Product produ
 //    - Accept product ID via `@PathVariable`.
 //    - Use `findById(id)` method from `ProductRepository` to fetch the product.
 //    - Return the product in a `Map<String, Object>` with key `products`.
+//    - Answers `If-None-Match` with 304 from the catalog version counter, before any query runs.
+//    - Concurrent requests for the same product share one query.
+//    - The body is a typed record; the not-found body is a pre-serialized constant.
 
     @GetMapping("/product/{id}")
-    public ResponseEntity<Map<String, Object>> getProductbyId(@PathVariable Long id) {
-        Map<String, Object> response = new HashMap<>();
-        Optional<Product> product = productRepository.findById(id);
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getProductbyId(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(catalogVersionService.catalogETag())) {
+            return null;
+        }
+        Optional<ProductView> product = singleFlight.execute("product-detail", id,
+                () -> productRepository.findViewById(id));
         if (product.isPresent()) {
-            response.put("products", product.get());
-            return ResponseEntity.ok(response);
-        } else {
-            response.put("message", "Product not found");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.ok(new ProductResponse(product.get()));
         }
+        return JsonResponses.PRODUCT_NOT_FOUND;
     }
 
  // 5. Define the `updateProduct` Method:
@@ -73,8 +126,18 @@ public ResponseEntity<Map<String, String>> addProduct(@RequestBody Product produ
     public ResponseEntity<Map<String, String>> updateProduct(@RequestBody Product product) {
         Map<String, String> response = new HashMap<>();
 
-        // Update product
-        productRepository.save(product);
+        // Update product; renaming onto another product's name or SKU is rejected by the unique constraints
+        try {
+            productRepository.saveAndFlush(product);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.violates(e, ConstraintViolations.PRODUCT_NAME)
+                    || ConstraintViolations.violates(e, ConstraintViolations.PRODUCT_SKU)) {
+                response.put("message", "Product already exists");
+                return ResponseEntity.badRequest().body(response);
+            }
+            throw e;
+        }
+        eventPublisher.publishEvent(ProductChangeEvent.saved(product));
         response.put("message", "Product updated successfully");
         return ResponseEntity.ok(response);
     }
@@ -85,8 +148,10 @@ public ResponseEntity<Map<String, String>> addProduct(@RequestBody Product produ
 //    - Use conditional filtering logic if `name` or `category` is `"null"`.
 //    - Fetch products based on category using methods like `findByCategory()` or `findProductBySubNameAndCategory()`.
 //    - Return filtered products in a `Map<String, Object>` with key `products`.
+//    - Catalog-wide category counts and the price histogram of the selected category go under the key `facets`.
 
     @GetMapping("/category/{name}/{category}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> filterbyCategoryProduct(@PathVariable String name, @PathVariable String category) {
         Map<String, Object> response = new HashMap<>();
         List<Product> products;
@@ -101,7 +166,8 @@ public ResponseEntity<Map<String, String>> addProduct(@RequestBody Product produ
             products = productRepository.findAll();
         }
 
-        response.put("products", products);
+        response.put("products", products.stream().map(ProductView::from).toList());
+        response.put("facets", facetService.catalogFacets(category.equals("null") ? null : category));
         return ResponseEntity.ok(response);
     }
 
@@ -109,11 +175,16 @@ public ResponseEntity<Map<String, String>> addProduct(@RequestBody Product produ
 //    - Annotate with `@GetMapping` to handle GET requests to fetch all products.
 //    - Fetch all products using `findAll()` method from `ProductRepository`.
 //    - Return all products in a `Map<String, Object>` with key `products`.
+//    - Answers `If-None-Match` with 304 from the catalog version counter, before any query runs.
 
     @GetMapping
-    public ResponseEntity<Map<String, Object>> listProduct() {
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> listProduct(WebRequest request) {
+        if (request.checkNotModified(catalogVersionService.catalogETag())) {
+            return null;
+        }
         Map<String, Object> response = new HashMap<>();
-        List<Product> products = productRepository.findAll();
+        List<ProductView> products = productRepository.findAllViews();
         response.put("products", products);
         return ResponseEntity.ok(response);
     }
@@ -122,40 +193,173 @@ public ResponseEntity<Map<String, String>> addProduct(@RequestBody Product produ
 //    - Annotate with `@GetMapping("filter/{category}/{storeid}")` to filter products by `category` and `storeId`.
 //    - Use `findProductByCategory()` method from `ProductRepository` to retrieve products.
 //    - Return filtered products in a `Map<String, Object>` with key `product`.
+//    - The store's category counts and the price histogram of `category` go under the key `facets`.
 
     @GetMapping("filter/{category}/{storeid}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> getProductbyCategoryAndStoreId(@PathVariable String category, @PathVariable Long storeid) {
         Map<String, Object> response = new HashMap<>();
-        List<Product> products = productRepository.findProductByCategoryAndStoreId(category, storeid);
-        response.put("product", products);
+        response.put("product", productRepository.findViewsByCategoryAndStoreId(category, storeid));
+        response.put("facets", facetService.storeFacets(storeid, category));
+        return ResponseEntity.ok(response);
+    }
+
+// 8a. Define the `getProductAdminView` Method:
+//    - Annotate with `@GetMapping("/admin/{id}")` for the admin screens.
+//    - Returns the product's detail fields plus its stock level in every store, with key `product`.
+
+    @GetMapping("/admin/{id}")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getProductAdminView(@PathVariable Long id) {
+        Map<String, Object> response = new HashMap<>();
+        Optional<ProductView> product = productRepository.findViewById(id);
+        if (product.isEmpty()) {
+            response.put("message", "Product not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        List<InventoryView> inventory = inventoryRepository.findViewsByProductId(id);
+        response.put("product", ProductAdminView.of(product.get(), inventory));
         return ResponseEntity.ok(response);
     }
 
+// 8b. Define the `getFacets` Methods:
+//    - Annotate with `@GetMapping("/facets")` and `@GetMapping("/facets/{storeId}")` to return facets without a product listing.
+//    - The optional `category` parameter selects whose price histogram is returned.
+//    - Served from in-memory counters; no query runs.
+
+    @GetMapping("/facets")
+    public ResponseEntity<Map<String, Object>> getCatalogFacets(@RequestParam(required = false) String category) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("facets", facetService.catalogFacets(category));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/facets/{storeId}")
+    public ResponseEntity<Map<String, Object>> getStoreFacets(@PathVariable Long storeId, @RequestParam(required = false) String category) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("facets", facetService.storeFacets(storeId, category));
+        return ResponseEntity.ok(response);
+    }
+
+// 8c. Define the `filterByPrice` Method:
+//    - Annotate with `@GetMapping("/price/{min}/{max}")` for the storefront price slider.
+//    - Optional `category` and `storeId` narrow the range; `limit` caps the result (at most 500).
+//    - Matching ids come from the in-memory price index in price order; only the page of views is loaded.
+//    - Return the products in a `Map<String, Object>` with key `products`.
+
+    @GetMapping("/price/{min}/{max}")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> filterByPrice(@PathVariable Double min, @PathVariable Double max,
+                                                             @RequestParam(required = false) String category,
+                                                             @RequestParam(required = false) Long storeId,
+                                                             @RequestParam(defaultValue = "100") int limit) {
+        Map<String, Object> response = new HashMap<>();
+        StoreInventorySnapshot snapshot = storeId == null ? null : inventorySnapshotService.snapshot(storeId);
+        LongPredicate filter = storeId == null ? productId -> true
+                : snapshot == null ? productId -> false : snapshot::contains;
+        long[] ids = priceIndex.productIds(min, max, category, filter, Math.max(0, Math.min(limit, 500)));
+        response.put("products", viewsInOrder(ids));
+        return ResponseEntity.ok(response);
+    }
+
+
+// 8d. Define the `getProductPage` Method:
+//    - Annotate with `@GetMapping("/{id}/detail")` for the product page; `storeId` is optional.
+//    - Product, stock level, review summary and the first page of reviews are fetched concurrently.
+//    - Sources that time out or fail are null and named under `missing`; the rest are still returned.
+//    - The page record is the body, with keys `product`, `stockLevel`, `reviewSummary`, `reviews` and `missing`.
+
+    @GetMapping("/{id}/detail")
+    public ResponseEntity<?> getProductPage(@PathVariable Long id, @RequestParam(required = false) Long storeId) {
+        Optional<ProductPageView> page = productDetailService.productPage(id, storeId);
+        if (page.isEmpty()) {
+            return JsonResponses.PRODUCT_NOT_FOUND;
+        }
+        return ResponseEntity.ok(page.get());
+    }
+
+
+// 8e. Define the `getBoughtTogether` Method:
+//    - Annotate with `@GetMapping("/{id}/bought-together")` for the product page recommendations.
+//    - Returns up to `limit` products (at most 50) most often ordered together with the product, most frequent first.
+//    - Partners come from the in-memory co-purchase index; only their list views are loaded.
+
+    @GetMapping("/{id}/bought-together")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getBoughtTogether(@PathVariable Long id, @RequestParam(defaultValue = "10") int limit) {
+        Map<String, Object> response = new HashMap<>();
+        long[] ids = coPurchaseIndex.boughtTogether(id, Math.max(0, Math.min(limit, 50)));
+        response.put("products", viewsInOrder(ids));
+        return ResponseEntity.ok(response);
+    }
+
+    // Views of the products, loaded with one query and returned in the order of `ids`; ids without a product are skipped.
+    private List<ProductView> viewsInOrder(long[] ids) {
+        List<Long> idList = Arrays.stream(ids).boxed().toList();
+        Map<Long, ProductView> views = new HashMap<>();
+        for (ProductView view : productRepository.findViewsByIdIn(idList)) {
+            views.put(view.id(), view);
+        }
+        List<ProductView> products = new ArrayList<>(ids.length);
+        for (Long id : idList) {
+            ProductView view = views.get(id);
+            if (view != null) {
+                products.add(view);
+            }
+        }
+        return products;
+    }
+
 
 // 9. Define the `deleteProduct` Method:
 //    - Annotate with `@DeleteMapping("/{id}")` to handle DELETE requests for removing a product by its ID.
 //    - Validate product existence using `ValidateProductId()` in `ServiceClass`.
 //    - Remove product from `Inventory` first using `deleteByProductId(id)` in `InventoryRepository`.
 //    - Remove product from `Product` using `deleteById(id)` in `ProductRepository`.
+//    - Both are done by `ProductDeletionService` with set-based deletes; an unknown id deletes nothing and is reported as invalid.
 //    - Return a success message with key `message` indicating product deletion.
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, String>> deleteProduct(@PathVariable Long id) {
         Map<String, String> response = new HashMap<>();
 
-        // Validate product ID
-        if (!serviceClass.validateProductId(id)) {
+        // Delete the product and its inventory with set-based statements; reviews follow asynchronously
+        ProductDeletionService.Result result = productDeletionService.deleteProducts(List.of(id));
+        if (!result.notDeleted().isEmpty()) {
+            response.put("message", "Product is still referenced by orders and was not deleted");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        if (result.deleted() == 0) {
             response.put("message", "Invalid product ID");
             return ResponseEntity.badRequest().body(response);
         }
 
-        // Delete inventory associated with the product
-        inventoryRepository.deleteByProductId(id);
+        response.put("message", "Product deleted successfully");
+        return ResponseEntity.ok(response);
+    }
 
-        // Delete the product
-        productRepository.deleteById(id);
+// 9a. Define the `deleteProducts` Method:
+//    - Annotate with `@DeleteMapping` and accept `ids` as a request parameter to delist many products at once.
+//    - Products are deleted in chunks, one transaction each; unknown ids are ignored.
+//    - Return the number of deleted products with key `deleted`.
+//    - Chunks commit independently, so products still referenced by orders do not stop the others from being deleted.
+//      If any were left in place, 409 is returned with the `deleted` count and their ids under `notDeleted`.
 
-        response.put("message", "Product deleted successfully");
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> deleteProducts(@RequestParam List<Long> ids) {
+        Map<String, Object> response = new HashMap<>();
+        if (ids.isEmpty() || ids.size() > 10_000) {
+            response.put("message", "Between 1 and 10000 product ids are required");
+            return ResponseEntity.badRequest().body(response);
+        }
+        ProductDeletionService.Result result = productDeletionService.deleteProducts(ids);
+        response.put("deleted", result.deleted());
+        if (!result.notDeleted().isEmpty()) {
+            response.put("message", "Some products are still referenced by orders and were not deleted");
+            response.put("notDeleted", result.notDeleted());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        response.put("message", "Products deleted successfully");
         return ResponseEntity.ok(response);
     }
 
@@ -165,10 +369,11 @@ public ResponseEntity<Map<String, String>> addProduct(@RequestBody Product produ
 //    - Return search results in a `Map<String, Object>` with key `products`.
 
     @GetMapping("/searchProduct/{name}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> searchProduct(@PathVariable String name) {
         Map<String, Object> response = new HashMap<>();
         List<Product> products = productRepository.findProductBySubName(name);
-        response.put("products", products);
+        response.put("products", products.stream().map(ProductView::from).toList());
         return ResponseEntity.ok(response);
     }
   
@@ -0,0 +1,106 @@
+package com.project.code.Controller;
+
+import com.project.code.Service.OrderExportService;
+import com.project.code.Service.OrderSegmentStore;
+import com.project.code.config.AsyncRequestTimeout;
+import com.project.code.model.RevenueRow;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/reports")
+public class ReportController {
+// 1. Set Up the Controller Class:
+//    - Reporting endpoints for finance and analytics; everything here reads, nothing writes.
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderSegmentStore orderSegmentStore;
+
+    @Value("${reports.export.timeout-ms:3600000}")
+    private long exportTimeoutMillis;
+
+// 2. Define the `exportOrders` Method:
+//    - Annotate with `@GetMapping("/orders/export")` to stream every order line in a date range.
+//    - Accepts `from` and `to` (ISO dates, inclusive) and `format` (`csv` or `ndjson`).
+//    - `archived=true` also includes months that have been moved out of MySQL into archive files.
+//    - The body is written while rows are read, so memory stays constant for month-end exports.
+//    - Only this response gets the long `reports.export.timeout-ms`; other async requests keep the default.
+
+    @GetMapping("/orders/export")
+    public ResponseEntity<?> exportOrders(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          @RequestParam(defaultValue = "csv") String format,
+                                          @RequestParam(defaultValue = "false") boolean archived,
+                                          HttpServletRequest request) {
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Unsupported export format: " + format);
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (to.isBefore(from)) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "'to' must not be before 'from'");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        StreamingResponseBody body = out -> orderExportService.export(from, to, exportFormat, archived, out);
+        AsyncRequestTimeout.set(request, exportTimeoutMillis);
+        String extension = exportFormat == OrderExportService.Format.CSV ? "csv" : "ndjson";
+        MediaType contentType = exportFormat == OrderExportService.Format.CSV
+                ? new MediaType("text", "csv")
+                : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=orders-" + from + "-" + to + "." + extension)
+                .body(body);
+    }
+
+// 3. Define the `revenue` Method:
+//    - Annotate with `@GetMapping("/revenue")` for revenue by any combination of month, store and category.
+//    - Accepts `from` and `to` (ISO dates, inclusive), optional `storeId`, and `groupBy` (comma-separated: `month`, `store`, `category`).
+//    - Computed from the columnar order segments, not MySQL; `exportedThrough` tells the last day they contain.
+
+    @GetMapping("/revenue")
+    public ResponseEntity<Map<String, Object>> revenue(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                       @RequestParam(required = false) Long storeId,
+                                                       @RequestParam(defaultValue = "month") List<String> groupBy) {
+        Map<String, Object> response = new HashMap<>();
+        if (to.isBefore(from)) {
+            response.put("message", "'to' must not be before 'from'");
+            return ResponseEntity.badRequest().body(response);
+        }
+        for (String dimension : groupBy) {
+            if (!List.of("month", "store", "category").contains(dimension)) {
+                response.put("message", "Unsupported groupBy: " + dimension);
+                return ResponseEntity.badRequest().body(response);
+            }
+        }
+        List<RevenueRow> rows = orderSegmentStore.revenue(from, to, storeId,
+                groupBy.contains("month"), groupBy.contains("store"), groupBy.contains("category"));
+        response.put("revenue", rows);
+        response.put("exportedThrough", orderSegmentStore.exportedThrough());
+        return ResponseEntity.ok(response);
+    }
+}
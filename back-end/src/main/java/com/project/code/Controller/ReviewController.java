@@ -1,5 +1,13 @@
 package com.project.code.Controller;
 
+import com.project.code.Service.ReviewStreamService;
+import com.project.code.Service.SingleFlight;
+import com.project.code.model.StoreReviewView;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.util.Collections;
+
 @Autowired
 @RestController
 @RequestMapping("/reviews")
@@ -14,6 +22,12 @@ public class ReviewController {
 //        - `ReviewRepository` for accessing review data.
 //        - `CustomerRepository` for retrieving customer details associated with reviews.
 
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private ReviewStreamService reviewStreamService;
+
 
 // 3. Define the `getReviews` Method:
 //    - Annotate with `@GetMapping("/{storeId}/{productId}")` to fetch reviews for a specific product in a store by `storeId` and `productId`.
@@ -22,10 +36,18 @@ public class ReviewController {
 //    - Filter reviews to include only `comment`, `rating`, and the `customerName` associated with the review.
 //    - Use `findById(review.getCustomerId())` from `CustomerRepository` to get customer name.
 //    - Return filtered reviews in a `Map<String, Object>` with key `reviews`.
+//    - Concurrent requests for the same store and product share one lookup.
 
     @GetMapping("/{storeId}/{productId}")
     public ResponseEntity<Map<String, Object>> getReviews(@PathVariable Long storeId, @PathVariable Long productId) {
         Map<String, Object> response = new HashMap<>();
+        List<Map<String, Object>> filteredReviews = singleFlight.execute("reviews", storeId + "/" + productId,
+                () -> loadReviews(storeId, productId));
+        response.put("reviews", filteredReviews);
+        return ResponseEntity.ok(response);
+    }
+
+    private List<Map<String, Object>> loadReviews(Long storeId, Long productId) {
         List<Review> reviews = reviewRepository.findByStoreIdAndProductId(storeId, productId);
 
         List<Map<String, Object>> filteredReviews = reviews.stream().map(review -> {
@@ -41,11 +63,20 @@ public class ReviewController {
                 reviewMap.put("customerName", "Unknown");
             }
 
-            return reviewMap;
-        }).collect(Collectors.toList());
+            return Collections.unmodifiableMap(reviewMap);
+        }).toList();
 
-        response.put("reviews", filteredReviews);
-        return ResponseEntity.ok(response);
+        return filteredReviews;
     }    
+
+// 4. Define the `streamReviews` Method:
+//    - Annotate with `@GetMapping("/{storeId}/stream")` producing `application/x-ndjson` for analytics exports.
+//    - The optional `productId` parameter narrows the stream to one product.
+//    - One JSON review per line; reviews are read from MongoDB only as fast as the client consumes them.
+
+    @GetMapping(value = "/{storeId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<StoreReviewView> streamReviews(@PathVariable Long storeId, @RequestParam(required = false) Long productId) {
+        return reviewStreamService.storeReviews(storeId, productId);
+    }
    
 }
@@ -1,5 +1,9 @@
 package com.project.code.Controller;
 
+import com.project.code.model.ErrorResponse;
+import com.project.code.model.OrderPlacedResponse;
+import org.springframework.transaction.annotation.Transactional;
+
 @Autowired
 @RestController
 @RequestMapping("/store")
@@ -30,30 +34,29 @@ public class StoreController {
 
  // 4. Define the `validateStore` Method:
 //    - Annotate with `@GetMapping("validate/{storeId}")` to check if a store exists by its `storeId`.
-//    - Return a **boolean** indicating if the store exists.
+//    - Return a **boolean** indicating if the store exists, as one of two pre-serialized constants.
 
     @GetMapping("validate/{storeId}")
-    public ResponseEntity<Boolean> validateStore(@PathVariable Long storeId) {
-        boolean exists = storeRepository.existsById(storeId);
-        return ResponseEntity.ok(exists);
+    @Transactional(readOnly = true)
+    public ResponseEntity<byte[]> validateStore(@PathVariable Long storeId) {
+        return JsonResponses.bool(storeRepository.existsById(storeId));
     }
 
  // 5. Define the `placeOrder` Method:
 //    - Annotate with `@PostMapping("/placeOrder")` to handle order placement.
 //    - Accept `PlaceOrderRequestDTO` in the request body.
-//    - Return a success message with key `message` if the order is successfully placed.
+//    - Return a success message with key `message` if the order is successfully placed, and the new order's id with key `orderId`.
 //    - Return an error message with key `Error` if there is an issue processing the order.
+//    - Both bodies are typed records, serialized without an intermediate map.
 
     @PostMapping("/placeOrder")
-    public ResponseEntity<Map<String, String>> placeOrder(@RequestBody PlaceOrderRequestDTO placeOrderRequest) {
-        Map<String, String> response = new HashMap<>();
+    public ResponseEntity<?> placeOrder(@RequestBody PlaceOrderRequestDTO placeOrderRequest) {
         try {
-            orderService.saveOrder(placeOrderRequest);
-            response.put("message", "Order placed successfully");
-            return ResponseEntity.ok(response);
+            Long orderId = orderService.saveOrder(placeOrderRequest);
+            return ResponseEntity.ok(new OrderPlacedResponse("Order placed successfully", String.valueOf(orderId)));
         } catch (Exception e) {
-            response.put("Error", "Failed to place order: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to place order: " + e.getMessage()));
         }
     }
    
@@ -0,0 +1,113 @@
+package com.project.code.Service;
+
+import com.project.code.model.ProductChangeEvent;
+import com.project.code.model.StockChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Version counters live in the catalog_version table, so every instance derives the same tag for the same data
+// and a client revalidating against any pod gets its 304. Each instance bumps the counters of the writes it
+// commits and reloads all of them every `catalog.etag.refresh-ms`. Writes made by the dataset generator or
+// plain SQL never bump them, so every tag also expires after `catalog.etag.max-age-seconds`: a stale client
+// is answered 304 for at most that long.
+// Tags are strong: the same versions are rendered by every instance from the same rows in the same order.
+@Service
+public class CatalogVersionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersionService.class);
+
+    private static final String CATALOG = "catalog";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${catalog.etag.max-age-seconds:30}")
+    private long maxAgeSeconds;
+
+    // Last known version per counter; versions only ever grow.
+    private final ConcurrentHashMap<String, Long> versions = new ConcurrentHashMap<>();
+
+// 1. **catalogETag Method**:
+//    - Returns the ETag of everything derived from the product table.
+//    - Changes whenever a product is added, updated or deleted, and at least every `catalog.etag.max-age-seconds`.
+
+    public String catalogETag() {
+        return "\"c" + epoch() + "." + version(CATALOG) + "\"";
+    }
+
+// 2. **storeETag Method**:
+//    - Returns the ETag of a store's inventory listing.
+//    - The listing embeds product data, so the tag covers both the catalog and the store's stock version.
+
+    public String storeETag(long storeId) {
+        return "\"s" + storeId + "." + epoch() + "." + version(CATALOG) + "." + version(store(storeId)) + "\"";
+    }
+
+// 3. **refresh Method**:
+//    - Picks up the versions bumped by other instances.
+
+    @Scheduled(fixedDelayString = "${catalog.etag.refresh-ms:1000}")
+    public void refresh() {
+        jdbcTemplate.query("SELECT name, version FROM catalog_version",
+                rs -> {
+                    versions.merge(rs.getString("name"), rs.getLong("version"), Math::max);
+                });
+    }
+
+    // Versions move only after the write has committed: a reader that computed the old tag
+    // before reading can at worst label new data with an old tag, never the reverse.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChange(StockChangeEvent event) {
+        bump(store(event.storeId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        bump(CATALOG);
+    }
+
+    // Runs after the write's commit, so it needs a transaction of its own; LAST_INSERT_ID() on the same
+    // connection returns the version this bump produced. A failed bump is only logged: the tag still expires.
+    private void bump(String name) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            Long version = transaction.execute(status -> {
+                jdbcTemplate.update("INSERT INTO catalog_version (name, version) VALUES (?, LAST_INSERT_ID(1)) " +
+                        "ON DUPLICATE KEY UPDATE version = LAST_INSERT_ID(version + 1)", name);
+                return jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+            });
+            if (version != null) {
+                versions.merge(name, version, Math::max);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not bump catalog version {}", name, e);
+        }
+    }
+
+    private long version(String name) {
+        return versions.getOrDefault(name, 0L);
+    }
+
+    private static String store(long storeId) {
+        return "store:" + storeId;
+    }
+
+    private long epoch() {
+        return System.currentTimeMillis() / (Math.max(1, maxAgeSeconds) * 1000);
+    }
+}
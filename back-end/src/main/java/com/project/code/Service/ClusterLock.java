@@ -0,0 +1,57 @@
+package com.project.code.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Runs maintenance jobs on one instance at a time across the cluster, using a MySQL named lock (GET_LOCK).
+// The lock belongs to a connection, so one connection is held for the whole job and the lock goes with it
+// if the instance dies; the job itself runs its statements on other connections as usual.
+@Service
+public class ClusterLock {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+// 1. **runExclusively Method**:
+//    - Runs `task` if no other instance holds the lock `name`, and returns whether it ran.
+//    - Never waits: a job that another instance is already running does not need running twice.
+
+    public boolean runExclusively(String name, Runnable task) {
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!acquire(connection, name)) {
+                return false;
+            }
+            try {
+                task.run();
+                return true;
+            } finally {
+                release(connection, name);
+            }
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    // GET_LOCK returns 1 when acquired, 0 when held elsewhere and NULL on error.
+    private static boolean acquire(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            statement.setString(1, name);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void release(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, name);
+            statement.executeQuery().close();
+        }
+    }
+}
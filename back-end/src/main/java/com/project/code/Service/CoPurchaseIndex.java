@@ -0,0 +1,432 @@
+package com.project.code.Service;
+
+import com.project.code.model.OrderPlacedEvent;
+import com.project.code.model.OrderReceipt;
+import com.project.code.model.ProductChangeEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// "Frequently bought together": how often two products were in the same order, kept as one int counter per
+// product pair (both ids packed into a long) plus the top-k partners of each product.
+// Seeded from recent order history and updated after every committed order. Memory is bounded by halving all
+// counts when there are more than `max-pairs` pairs (pairs seen once disappear first), and weekly, so old
+// buying patterns fade.
+// All updates run on one background thread, which publishes immutable partner lists; checkout only enqueues the
+// basket and readers never wait for an update or a decay.
+@Service
+public class CoPurchaseIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CoPurchaseIndex.class);
+
+    private static final long[] NONE = new long[0];
+
+    // Under steady load the queue may never run empty; partner lists are also published after this many changes.
+    private static final int PUBLISH_BATCH = 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${catalog.bought-together.top-k:20}")
+    private int topK;
+
+    @Value("${catalog.bought-together.min-count:2}")
+    private int minCount;
+
+    @Value("${catalog.bought-together.max-pairs:2000000}")
+    private int maxPairs;
+
+    // Larger orders only contribute their first products; pairs grow with the square of the basket.
+    @Value("${catalog.bought-together.max-basket:50}")
+    private int maxBasket;
+
+    @Value("${catalog.bought-together.history-days:365}")
+    private int historyDays;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the history.
+    @Value("${catalog.bought-together.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    // Baskets beyond this many waiting for the updater are not counted.
+    @Value("${catalog.bought-together.queue-size:10000}")
+    private int queueSize;
+
+    private ThreadPoolExecutor updater;
+    private final AtomicInteger queuedBaskets = new AtomicInteger();
+
+    // Only touched by the updater thread.
+    private Graph graph;
+    // Guarded by this. Orders applied while a rebuild reads history, replayed onto the rebuilt graph; null when no
+    // rebuild runs.
+    private List<OrderBasket> journal;
+
+    // What readers see; replaced by the updater thread.
+    private volatile Neighbours neighbours = new Neighbours(new LongIntHashMap(), new AtomicReferenceArray<>(0));
+
+    @PostConstruct
+    void start() {
+        // Control tasks (rebuild, decay, deletions) are never dropped; baskets are bounded by `queue-size`.
+        updater = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "co-purchase");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        updater.shutdownNow();
+    }
+
+// 1. **boughtTogether Method**:
+//    - Returns up to `limit` products most often bought with `productId`, most frequent first.
+//    - Partners seen together fewer than `catalog.bought-together.min-count` times are left out.
+//    - Lock-free: reads the last published partner list.
+
+    public long[] boughtTogether(long productId, int limit) {
+        Partners partners = neighbours.get(productId);
+        if (partners == null) {
+            return NONE;
+        }
+        int count = 0;
+        while (count < Math.min(limit, partners.ids().length) && partners.counts()[count] >= minCount) {
+            count++;
+        }
+        return Arrays.copyOf(partners.ids(), count);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        OrderReceipt receipt = event.receipt();
+        long[] products = new long[receipt.items().size()];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = receipt.items().get(i).productId();
+        }
+        if (queuedBaskets.incrementAndGet() > queueSize) {
+            queuedBaskets.decrementAndGet();
+            log.warn("Co-purchase update queue full; order {} is not counted", receipt.orderId());
+            return;
+        }
+        OrderBasket basket = new OrderBasket(receipt.orderId(), products);
+        updater.execute(() -> {
+            queuedBaskets.decrementAndGet();
+            apply(basket);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (event.deleted()) {
+            // Its pair counters age out through decay; readers resolve ids against the catalog anyway.
+            updater.execute(() -> {
+                if (graph != null) {
+                    graph.remove(event.productId());
+                    graph.publish();
+                }
+            });
+        }
+    }
+
+// 2. **rebuild Method**:
+//    - Counts the pairs of every order of the last `catalog.bought-together.history-days` days and hands the result
+//      to the updater, which swaps it in.
+//    - Orders applied during the read are replayed on top, unless the read already saw them.
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+        long[] lastOrderRead = new long[1];
+        Graph fresh;
+        try {
+            fresh = readHistory(lastOrderRead);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                journal = null;
+            }
+            throw e;
+        }
+        updater.execute(() -> install(fresh, lastOrderRead[0]));
+    }
+
+// 3. **decay Method**:
+//    - Halves every pair count weekly so that recent orders outweigh old ones and rare pairs are dropped.
+//    - Runs on the updater; readers keep the previous partner lists until the decayed ones are published.
+
+    @Scheduled(cron = "${catalog.bought-together.decay-cron:0 0 5 * * SUN}")
+    public void decay() {
+        updater.execute(() -> {
+            if (graph != null) {
+                graph.decay();
+                graph.publish();
+            }
+        });
+    }
+
+    // Updater thread only.
+    private void apply(OrderBasket basket) {
+        synchronized (this) {
+            if (journal != null) {
+                journal.add(basket);
+            }
+        }
+        if (graph != null) {
+            graph.addBasket(basket.products());
+            if (queuedBaskets.get() == 0 || graph.changed.size() >= PUBLISH_BATCH) {
+                graph.publish();
+            }
+        }
+    }
+
+    // Updater thread only.
+    private void install(Graph fresh, long lastOrderRead) {
+        List<OrderBasket> missed;
+        synchronized (this) {
+            missed = journal;
+            journal = null;
+        }
+        for (OrderBasket basket : missed) {
+            if (basket.orderId() > lastOrderRead) {
+                fresh.addBasket(basket.products());
+            }
+        }
+        graph = fresh;
+        fresh.publish();
+        log.info("Co-purchase index built with {} pairs over {} products", fresh.pairs.size(), fresh.products);
+    }
+
+    // Items of one order arrive together because the rows are ordered by order id.
+    private Graph readHistory(long[] lastOrderRead) {
+        Graph fresh = new Graph();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT order_id, product_id FROM order_item WHERE order_date >= ? ORDER BY order_id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, Timestamp.valueOf(LocalDate.now().minusDays(historyDays).atStartOfDay()));
+            return statement;
+        }, (ResultSet rs) -> {
+            long[] basket = new long[maxBasket];
+            int size = 0;
+            long currentOrder = -1;
+            while (rs.next()) {
+                long orderId = rs.getLong("order_id");
+                if (orderId != currentOrder) {
+                    fresh.addBasket(Arrays.copyOf(basket, size));
+                    size = 0;
+                    currentOrder = orderId;
+                }
+                if (size < basket.length) {
+                    basket[size++] = rs.getLong("product_id");
+                }
+            }
+            fresh.addBasket(Arrays.copyOf(basket, size));
+            lastOrderRead[0] = currentOrder;
+            return null;
+        }));
+        return fresh;
+    }
+
+    private record OrderBasket(long orderId, long[] products) {
+    }
+
+    // Product id -> slot in `partners`, both primitive. Slots are only ever added; the array is replaced when it grows.
+    private record Neighbours(LongIntHashMap slots, AtomicReferenceArray<Partners> partners) {
+
+        Partners get(long productId) {
+            int slot = slots.get(productId);
+            return slot == LongIntHashMap.MISSING || slot >= partners.length() ? null : partners.get(slot);
+        }
+    }
+
+    // Published, immutable partners of one product, highest count first.
+    private record Partners(long[] ids, int[] counts) {
+    }
+
+    // Mutable counts of the updater. Changed partner lists are copied into `view` by publish(), which then makes the
+    // view current for readers; a graph that is still being built is never visible.
+    private final class Graph {
+
+        private final LongIntCounter pairs = new LongIntCounter(1 << 16);
+        private final List<TopK> changed = new ArrayList<>();
+        private LongIntHashMap slots;
+        private TopK[] lists;
+        private int products;
+        private Neighbours view;
+
+        Graph() {
+            clearNeighbours();
+        }
+
+        void addBasket(long[] products) {
+            long[] distinct = Arrays.stream(products, 0, Math.min(products.length, maxBasket))
+                    .filter(id -> id > 0 && id <= Integer.MAX_VALUE)
+                    .distinct()
+                    .toArray();
+            for (int i = 0; i < distinct.length; i++) {
+                for (int j = i + 1; j < distinct.length; j++) {
+                    long a = Math.min(distinct[i], distinct[j]);
+                    long b = Math.max(distinct[i], distinct[j]);
+                    int count = pairs.add((a << 32) | b, 1);
+                    offer(a, b, count);
+                    offer(b, a, count);
+                }
+            }
+            if (pairs.size() > maxPairs) {
+                decay();
+                log.info("Co-purchase index over {} pairs; counts halved, {} pairs left", maxPairs, pairs.size());
+            }
+        }
+
+        // Rebuilds the partner lists into a new view; readers keep the old one until the next publish().
+        void decay() {
+            pairs.halve();
+            clearNeighbours();
+            pairs.forEach((key, count) -> {
+                long a = key >>> 32;
+                long b = key & 0xFFFFFFFFL;
+                offer(a, b, count);
+                offer(b, a, count);
+            });
+        }
+
+        void remove(long productId) {
+            int slot = slots.get(productId);
+            if (slot != LongIntHashMap.MISSING) {
+                lists[slot].clear();
+                markChanged(lists[slot]);
+            }
+        }
+
+        void publish() {
+            AtomicReferenceArray<Partners> partners = view.partners();
+            for (TopK list : changed) {
+                list.changed = false;
+                partners.set(list.slot, list.snapshot());
+            }
+            changed.clear();
+            neighbours = view;
+        }
+
+        private void clearNeighbours() {
+            slots = new LongIntHashMap();
+            lists = new TopK[16];
+            products = 0;
+            view = new Neighbours(slots, new AtomicReferenceArray<>(lists.length));
+            changed.clear();
+        }
+
+        private void offer(long product, long partner, int count) {
+            int slot = slots.get(product);
+            if (slot == LongIntHashMap.MISSING) {
+                slot = products++;
+                if (slot == lists.length) {
+                    lists = Arrays.copyOf(lists, slot * 2);
+                    AtomicReferenceArray<Partners> grown = new AtomicReferenceArray<>(lists.length);
+                    for (int i = 0; i < slot; i++) {
+                        grown.set(i, view.partners().get(i));
+                    }
+                    view = new Neighbours(slots, grown);
+                }
+                lists[slot] = new TopK(topK, slot);
+                slots.putNew(product, slot);
+            }
+            lists[slot].offer(partner, count);
+            markChanged(lists[slot]);
+        }
+
+        private void markChanged(TopK list) {
+            if (!list.changed) {
+                list.changed = true;
+                changed.add(list);
+            }
+        }
+    }
+
+    // Partners of one product ordered by count, highest first.
+    private static final class TopK {
+
+        private final long[] ids;
+        private final int[] counts;
+        private final int slot;
+        private int size;
+        private boolean changed;
+
+        TopK(int k, int slot) {
+            ids = new long[k];
+            counts = new int[k];
+            this.slot = slot;
+        }
+
+        Partners snapshot() {
+            return size == 0 ? null : new Partners(Arrays.copyOf(ids, size), Arrays.copyOf(counts, size));
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        // Counts of a pair only grow between decays, so an entry only ever moves up.
+        void offer(long id, int count) {
+            int slot = -1;
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    slot = i;
+                    break;
+                }
+            }
+            if (slot < 0) {
+                if (size < ids.length) {
+                    slot = size++;
+                } else if (count > counts[size - 1]) {
+                    slot = size - 1;
+                } else {
+                    return;
+                }
+                ids[slot] = id;
+            }
+            counts[slot] = count;
+            while (slot > 0 && counts[slot] > counts[slot - 1]) {
+                long swapId = ids[slot - 1];
+                int swapCount = counts[slot - 1];
+                ids[slot - 1] = ids[slot];
+                counts[slot - 1] = counts[slot];
+                ids[slot] = swapId;
+                counts[slot] = swapCount;
+                slot--;
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.project.code.Service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+// Names of the unique constraints the controllers rely on instead of check-then-insert queries,
+// and a way to tell which of them a failed write violated.
+public final class ConstraintViolations {
+
+    public static final String PRODUCT_NAME = "uk_product_name";
+    public static final String PRODUCT_SKU = "uk_product_sku";
+    public static final String INVENTORY_PRODUCT_STORE = "uk_inventory_product_store";
+
+    private ConstraintViolations() {
+    }
+
+// 1. **violates Method**:
+//    - Returns true if the exception was caused by the named constraint.
+//    - Uses Hibernate's parsed constraint name, falling back to the driver message (MySQL: "Duplicate entry ... for key 'table.name'").
+
+    public static boolean violates(DataIntegrityViolationException e, String constraintName) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return matches(violation.getConstraintName(), constraintName);
+            }
+        }
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(constraintName);
+    }
+
+    private static boolean matches(String reported, String constraintName) {
+        String name = reported.toLowerCase(Locale.ROOT);
+        // MySQL 8 reports "table.constraint"; strip the qualifier and any quoting.
+        int dot = name.lastIndexOf('.');
+        if (dot >= 0) {
+            name = name.substring(dot + 1);
+        }
+        return name.replace("`", "").replace("'", "").equals(constraintName);
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.code.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Bounded LRU map from customer email to customer id, filled on every order so repeat customers
+// are resolved without a query. Emails are compared case-insensitively, like the unique index;
+// callers pass them already trimmed, exactly as they are written to the database.
+@Service
+public class CustomerIdCache {
+
+    private final Map<String, Long> ids;
+
+    public CustomerIdCache(@Value("${customers.id-cache.size:100000}") int capacity) {
+        this.ids = new LinkedHashMap<>(Math.min(capacity, 1 << 16), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // Returns the cached id, or null.
+    public synchronized Long get(String email) {
+        return ids.get(key(email));
+    }
+
+    public synchronized void put(String email, long customerId) {
+        ids.put(key(email), customerId);
+    }
+
+    // A customer inserted by a transaction that later rolls back must not be cached.
+    public void putAfterCommit(String email, long customerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(email, customerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(email, customerId);
+            }
+        });
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
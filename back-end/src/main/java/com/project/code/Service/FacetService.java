@@ -0,0 +1,302 @@
+package com.project.code.Service;
+
+import com.project.code.model.FacetCounts;
+import com.project.code.model.PriceBucket;
+import com.project.code.model.ProductChangeEvent;
+import com.project.code.model.StockChangeEvent;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory category counts and price histograms, for the whole catalog and for each store's assortment.
+// Kept current from committed product and stock changes, so a facet read returns a precomputed result
+// instead of running a GROUP BY per page view.
+// Writers update the counts under the service lock and discard the affected published facets; the first read
+// after a change rebuilds them once, and every other read returns the immutable published result without locking.
+@Service
+public class FacetService {
+
+    private static final Logger log = LoggerFactory.getLogger(FacetService.class);
+
+    private static final int LOAD_ATTEMPTS = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Upper bounds of the price buckets; one more open-ended bucket follows the last bound.
+    @Value("${catalog.facets.price-buckets:100,250,500,750,1000,1500,2500}")
+    private double[] bucketBounds;
+
+    // Mutated under this; replaced wholesale on reload. Volatile so readers can reach the published facets without the lock.
+    private volatile FacetState state;
+    private boolean loaded;
+    private long modCount;
+
+    private Published empty;
+
+    @PostConstruct
+    void init() {
+        Arrays.sort(bucketBounds);
+        state = new FacetState();
+        empty = new Counts().publish();
+    }
+
+// 1. **catalogFacets Method**:
+//    - Returns the facets of every product in the catalog.
+//    - `category` selects whose price histogram is returned; null means all categories.
+
+    public FacetCounts catalogFacets(String category) {
+        ensureLoaded();
+        return published(state.catalog).facets(category);
+    }
+
+// 2. **storeFacets Method**:
+//    - Returns the facets of the products stocked by one store.
+//    - `category` selects whose price histogram is returned; null means all categories.
+
+    public FacetCounts storeFacets(long storeId, String category) {
+        ensureLoaded();
+        Counts counts = state.stores.get(storeId);
+        return counts == null ? empty.facets(category) : published(counts).facets(category);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onStockChange(StockChangeEvent event) {
+        modCount++;
+        if (event.previousLevel() == null && event.newLevel() != null) {
+            state.stock(event.storeId(), event.productId());
+        } else if (event.newLevel() == null) {
+            state.unstock(event.storeId(), event.productId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChange(ProductChangeEvent event) {
+        modCount++;
+        if (event.deleted()) {
+            state.removeProduct(event.productId());
+        } else {
+            state.putProduct(event.productId(), event.category(), bucketOf(event.price()));
+        }
+    }
+
+// 3. **rebuild Method**:
+//    - Reads products and inventory rows from the database and swaps in fresh counts.
+//    - Runs once the application is up and then periodically, repairing anything an event missed.
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog.facets.rebuild-interval-ms:600000}",
+            fixedDelayString = "${catalog.facets.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        for (int attempt = 0; attempt < LOAD_ATTEMPTS; attempt++) {
+            long seen;
+            synchronized (this) {
+                seen = modCount;
+            }
+            FacetState fresh = read();
+            synchronized (this) {
+                if (modCount == seen) {
+                    state = fresh;
+                    loaded = true;
+                    return;
+                }
+            }
+        }
+        // Busy catalog: keep the incrementally maintained counts and try again next interval.
+        synchronized (this) {
+            loaded = true;
+        }
+        log.info("Facet rebuild skipped after {} attempts; catalog kept changing", LOAD_ATTEMPTS);
+    }
+
+    private Published published(Counts counts) {
+        Published published = counts.published;
+        if (published != null) {
+            return published;
+        }
+        synchronized (this) {
+            if (counts.published == null) {
+                counts.published = counts.publish();
+            }
+            return counts.published;
+        }
+    }
+
+    private void ensureLoaded() {
+        boolean needsLoad;
+        synchronized (this) {
+            needsLoad = !loaded;
+        }
+        if (needsLoad) {
+            rebuild();
+        }
+    }
+
+    private FacetState read() {
+        FacetState fresh = new FacetState();
+        jdbcTemplate.query("SELECT id, category, price FROM product",
+                rs -> {
+                    Double price = rs.getObject("price", Double.class);
+                    fresh.putProduct(rs.getLong("id"), rs.getString("category"), bucketOf(price));
+                });
+        jdbcTemplate.query("SELECT store_id, product_id FROM inventory",
+                rs -> {
+                    fresh.stock(rs.getLong("store_id"), rs.getLong("product_id"));
+                });
+        return fresh;
+    }
+
+    private int bucketOf(Double price) {
+        if (price == null) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(bucketBounds, price);
+        // An exact bound belongs to the bucket above it.
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private final class FacetState {
+
+        private final Map<Long, ProductFacet> products = new HashMap<>();
+        private final Map<Long, Set<Long>> storesByProduct = new HashMap<>();
+        // Concurrent so readers can look a store up without the service lock.
+        private final Map<Long, Counts> stores = new ConcurrentHashMap<>();
+        private final Counts catalog = new Counts();
+
+        void putProduct(long productId, String category, int bucket) {
+            ProductFacet previous = products.put(productId, new ProductFacet(category, bucket));
+            if (previous != null && previous.category().equals(category) && previous.bucket() == bucket) {
+                return;
+            }
+            Set<Long> storeIds = storesByProduct.getOrDefault(productId, Set.of());
+            if (previous != null) {
+                catalog.add(previous, -1);
+                for (Long storeId : storeIds) {
+                    stores.get(storeId).add(previous, -1);
+                }
+            }
+            ProductFacet current = products.get(productId);
+            catalog.add(current, 1);
+            for (Long storeId : storeIds) {
+                stores.get(storeId).add(current, 1);
+            }
+        }
+
+        void removeProduct(long productId) {
+            ProductFacet previous = products.remove(productId);
+            Set<Long> storeIds = storesByProduct.remove(productId);
+            if (previous == null) {
+                return;
+            }
+            catalog.add(previous, -1);
+            if (storeIds != null) {
+                for (Long storeId : storeIds) {
+                    stores.get(storeId).add(previous, -1);
+                }
+            }
+        }
+
+        void stock(long storeId, long productId) {
+            if (!storesByProduct.computeIfAbsent(productId, id -> new HashSet<>()).add(storeId)) {
+                return;
+            }
+            ProductFacet facet = products.get(productId);
+            Counts counts = stores.computeIfAbsent(storeId, id -> new Counts());
+            if (facet != null) {
+                counts.add(facet, 1);
+            }
+        }
+
+        void unstock(long storeId, long productId) {
+            Set<Long> storeIds = storesByProduct.get(productId);
+            if (storeIds == null || !storeIds.remove(storeId)) {
+                return;
+            }
+            ProductFacet facet = products.get(productId);
+            if (facet != null) {
+                stores.get(storeId).add(facet, -1);
+            }
+        }
+    }
+
+    // Per-category histograms; the category total is the sum of its buckets. Mutated under the service lock.
+    private final class Counts {
+
+        private final Map<String, int[]> byCategory = new HashMap<>();
+        private final int[] all = new int[bucketBounds.length + 1];
+        private int total;
+
+        // Facets of the current counts, or null after a change until the next read publishes them again.
+        private volatile Published published;
+
+        void add(ProductFacet facet, int delta) {
+            int[] buckets = byCategory.computeIfAbsent(facet.category(), c -> new int[bucketBounds.length + 1]);
+            buckets[facet.bucket()] += delta;
+            all[facet.bucket()] += delta;
+            total += delta;
+            published = null;
+        }
+
+        Published publish() {
+            Map<String, Integer> categories = new TreeMap<>();
+            for (Map.Entry<String, int[]> entry : byCategory.entrySet()) {
+                int count = Arrays.stream(entry.getValue()).sum();
+                if (count > 0) {
+                    categories.put(entry.getKey(), count);
+                }
+            }
+            categories = Collections.unmodifiableMap(categories);
+            Map<String, FacetCounts> byName = new HashMap<>();
+            for (Map.Entry<String, int[]> entry : byCategory.entrySet()) {
+                byName.put(entry.getKey(), new FacetCounts(total, categories, priceBuckets(entry.getValue())));
+            }
+            return new Published(new FacetCounts(total, categories, priceBuckets(all)),
+                    new FacetCounts(total, categories, priceBuckets(new int[all.length])), byName);
+        }
+
+        private List<PriceBucket> priceBuckets(int[] buckets) {
+            List<PriceBucket> priceBuckets = new ArrayList<>(buckets.length);
+            for (int i = 0; i < buckets.length; i++) {
+                double min = i == 0 ? 0 : bucketBounds[i - 1];
+                Double max = i < bucketBounds.length ? bucketBounds[i] : null;
+                priceBuckets.add(new PriceBucket(min, max, buckets[i]));
+            }
+            return List.copyOf(priceBuckets);
+        }
+    }
+
+    // Immutable facets of one Counts: all categories, a category nobody has, and each known category.
+    private record Published(FacetCounts all, FacetCounts none, Map<String, FacetCounts> byCategory) {
+
+        FacetCounts facets(String category) {
+            return category == null ? all : byCategory.getOrDefault(category, none);
+        }
+    }
+
+    // Products without a category are counted under the empty string.
+    private record ProductFacet(String category, int bucket) {
+
+        ProductFacet {
+            category = category == null ? "" : category;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.code.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.code.model.StoreProductView;
+import com.project.code.repo.ProductRepository;
+import com.project.code.repo.StoreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class InventorySnapshotService {
+
+    // Bounds the tags remembered for unknown store ids, which any client can make up.
+    private static final int MAX_MISSING_STORES = 10_000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<Long, StoreInventorySnapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, CompletableFuture<StoreInventorySnapshot>> rebuilds = new ConcurrentHashMap<>();
+
+    // Store ids found not to exist, with the store ETag they were looked up under.
+    private final ConcurrentHashMap<Long, String> missingStores = new ConcurrentHashMap<>();
+
+// 1. **snapshot Method**:
+//    - Returns the current snapshot of a store, rebuilding it lazily when the store ETag has moved on.
+//    - Only one reader per store rebuilds; the others keep serving the previous snapshot meanwhile
+//      and only wait when the store has no snapshot at all yet.
+//    - Returns null for a store that does not exist, so only real stores ever hold a snapshot.
+//      The miss is remembered under the store ETag like a snapshot, so unknown ids do not query the primary
+//      on every request; a store created since shows up once its tag moves (first stock change, or expiry).
+
+    public StoreInventorySnapshot snapshot(long storeId) {
+        // The tag is read before the query, so a snapshot can never carry a newer tag than its data.
+        String etag = catalogVersionService.storeETag(storeId);
+        StoreInventorySnapshot current = snapshots.get(storeId);
+        if (current != null && current.getEtag().equals(etag)) {
+            return current;
+        }
+        if (etag.equals(missingStores.get(storeId))) {
+            return null;
+        }
+
+        CompletableFuture<StoreInventorySnapshot> rebuild = new CompletableFuture<>();
+        CompletableFuture<StoreInventorySnapshot> running = rebuilds.putIfAbsent(storeId, rebuild);
+        if (running != null) {
+            return current != null ? current : running.join();
+        }
+        try {
+            StoreInventorySnapshot rebuilt = build(storeId, etag);
+            if (rebuilt == null) {
+                snapshots.remove(storeId);
+                if (missingStores.size() >= MAX_MISSING_STORES) {
+                    missingStores.clear();
+                }
+                missingStores.put(storeId, etag);
+            } else {
+                missingStores.remove(storeId);
+                snapshots.put(storeId, rebuilt);
+            }
+            rebuild.complete(rebuilt);
+            return rebuilt;
+        } catch (RuntimeException e) {
+            rebuild.completeExceptionally(e);
+            throw e;
+        } finally {
+            rebuilds.remove(storeId, rebuild);
+        }
+    }
+
+    // Not read-only on purpose: a replica may not have the write that moved the tag yet, and a snapshot read there
+    // would be served under the new tag until the next change. Rebuilds are rare, so they go to the primary,
+    // in a transaction of their own even when the caller is inside a read-only one.
+    private StoreInventorySnapshot build(long storeId, String etag) {
+        TransactionTemplate primary = new TransactionTemplate(transactionManager);
+        primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<StoreProductView> rows = primary.execute(status ->
+                storeRepository.existsById(storeId) ? productRepository.findStoreProductViews(storeId) : null);
+        if (rows == null) {
+            return null;
+        }
+        List<StoreProductView> products = new ArrayList<>(rows);
+        products.sort(Comparator.comparingLong(StoreProductView::id));
+
+        long[] productIds = new long[products.size()];
+        int[] stockLevels = new int[products.size()];
+        for (int i = 0; i < products.size(); i++) {
+            productIds[i] = products.get(i).id();
+            Integer stockLevel = products.get(i).stockLevel();
+            stockLevels[i] = stockLevel == null ? 0 : stockLevel;
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(Map.of("products", products));
+            return new StoreInventorySnapshot(etag, productIds, stockLevels, json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize inventory of store " + storeId, e);
+        }
+    }
+}
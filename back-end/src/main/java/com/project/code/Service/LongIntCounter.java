@@ -0,0 +1,107 @@
+package com.project.code.Service;
+
+// Open-addressing long -> int counter for positive keys, without boxing. Not thread-safe.
+// Entries are never removed one by one; halve() rebuilds the table without the counts that reach zero.
+final class LongIntCounter {
+
+    interface Visitor {
+        void visit(long key, int count);
+    }
+
+    private long[] keys;
+    private int[] counts;
+    private int size;
+
+    LongIntCounter(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        counts = new int[capacity];
+    }
+
+    // Adds delta to the key's count and returns the new count.
+    int add(long key, int delta) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                counts[slot] += delta;
+                return counts[slot];
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                counts[slot] = delta;
+                size++;
+                return delta;
+            }
+        }
+    }
+
+    // Returns the key's count, or 0.
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return counts[slot];
+            }
+            if (keys[slot] == 0) {
+                return 0;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(Visitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                visitor.visit(keys[slot], counts[slot]);
+            }
+        }
+    }
+
+    // Halves every count and drops the keys whose count becomes zero.
+    void halve() {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        int remaining = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != 0 && oldCounts[slot] > 1) {
+                remaining++;
+            }
+        }
+        int capacity = Integer.highestOneBit(Math.max(16, remaining * 2 - 1)) << 1;
+        keys = new long[capacity];
+        counts = new int[capacity];
+        size = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != 0 && oldCounts[slot] > 1) {
+                add(oldKeys[slot], oldCounts[slot] >> 1);
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[capacity];
+        counts = new int[capacity];
+        size = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != 0) {
+                add(oldKeys[slot], oldCounts[slot]);
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,83 @@
+package com.project.code.Service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Open-addressing long -> int map for positive keys, without boxing.
+// One writer at a time (callers synchronize); readers may run concurrently with the writer:
+// a value is written before its key is released, and growth publishes a new table.
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private volatile Table table = new Table(16);
+    private int size;
+
+    // Returns the value of a key, or MISSING. Allocation-free.
+    int get(long key) {
+        if (key <= 0) {
+            return MISSING;
+        }
+        Table t = table;
+        int mask = t.keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            long k = (long) KEYS.getAcquire(t.keys, slot);
+            if (k == key) {
+                return t.values[slot];
+            }
+            if (k == 0) {
+                return MISSING;
+            }
+        }
+    }
+
+    // Adds a key that is not yet present; values of existing keys never change.
+    void putNew(long key, int value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        if ((size + 1) * 2 > table.keys.length) {
+            Table grown = new Table(table.keys.length * 2);
+            Table old = table;
+            for (int slot = 0; slot < old.keys.length; slot++) {
+                if (old.keys[slot] != 0) {
+                    insert(grown, old.keys[slot], old.values[slot]);
+                }
+            }
+            table = grown;
+        }
+        insert(table, key, value);
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static void insert(Table t, long key, int value) {
+        int mask = t.keys.length - 1;
+        int slot = mix(key) & mask;
+        while (t.keys[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        t.values[slot] = value;
+        KEYS.setRelease(t.keys, slot, key);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final int[] values;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new int[capacity];
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.project.code.Service;
+
+import com.project.code.model.LowStockEntry;
+import com.project.code.model.ProductChangeEvent;
+import com.project.code.model.StockChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// In-memory, per-store ordered set of the products at or below their reorder threshold.
+// Kept current from committed stock changes; only low rows and custom thresholds are held,
+// so a watchlist read walks k entries regardless of the store's assortment size.
+@Service
+public class LowStockIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockIndex.class);
+
+    private static final Comparator<LowStockEntry> MOST_URGENT_FIRST = Comparator
+            .comparingInt(LowStockEntry::margin)
+            .thenComparingInt(LowStockEntry::stockLevel)
+            .thenComparingLong(LowStockEntry::productId);
+
+    private static final int LOAD_ATTEMPTS = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${inventory.low-stock.default-threshold:10}")
+    private int defaultThreshold;
+
+    private final ConcurrentHashMap<Long, StoreWatchlist> stores = new ConcurrentHashMap<>();
+
+// 1. **lowStock Method**:
+//    - Returns up to `limit` products of a store, most urgent (furthest below threshold) first.
+//    - Loads the store from the database the first time it is asked for.
+//    - An unknown store gets an empty list and is not tracked, so arbitrary ids cannot grow the index.
+
+    public List<LowStockEntry> lowStock(long storeId, int limit) {
+        StoreWatchlist watchlist = stores.get(storeId);
+        if (watchlist == null) {
+            Integer known = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM store WHERE id = ?", Integer.class, storeId);
+            if (known == null || known == 0) {
+                return List.of();
+            }
+            watchlist = watchlist(storeId);
+        }
+        if (!watchlist.loaded) {
+            load(storeId, watchlist);
+        }
+        List<LowStockEntry> result = new ArrayList<>(Math.min(limit, 64));
+        Iterator<LowStockEntry> entries = watchlist.ordered.iterator();
+        while (result.size() < limit && entries.hasNext()) {
+            result.add(entries.next());
+        }
+        return result;
+    }
+
+// 2. **updateThreshold Method**:
+//    - Records a new reorder threshold for a store/product pair (null restores the default) and re-evaluates it.
+//    - Called after the threshold has been saved to the inventory table; a null stock level is never low.
+
+    public void updateThreshold(long storeId, long productId, Integer threshold, Integer stockLevel) {
+        StoreWatchlist watchlist = watchlist(storeId);
+        synchronized (watchlist) {
+            if (threshold == null) {
+                watchlist.thresholds.remove(productId);
+            } else {
+                watchlist.thresholds.put(productId, threshold);
+            }
+            watchlist.apply(productId, stockLevel, thresholdOf(watchlist, productId));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChange(StockChangeEvent event) {
+        StoreWatchlist watchlist = watchlist(event.storeId());
+        synchronized (watchlist) {
+            if (event.newLevel() == null) {
+                watchlist.thresholds.remove(event.productId());
+            }
+            watchlist.apply(event.productId(), event.newLevel(), thresholdOf(watchlist, event.productId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (!event.deleted()) {
+            return;
+        }
+        for (StoreWatchlist watchlist : stores.values()) {
+            synchronized (watchlist) {
+                watchlist.thresholds.remove(event.productId());
+                watchlist.apply(event.productId(), null, defaultThreshold);
+            }
+        }
+    }
+
+// 3. **rebuild Method**:
+//    - Loads every store from the database once the application is up.
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Long> storeIds = jdbcTemplate.queryForList("SELECT id FROM store", Long.class);
+        for (Long storeId : storeIds) {
+            load(storeId, watchlist(storeId));
+        }
+        log.info("Low-stock index loaded for {} stores", storeIds.size());
+    }
+
+// 4. **reconcile Method**:
+//    - Periodically re-reads each store and compares it with the in-memory watchlist.
+//    - Differences are logged and repaired; a store that changed during its re-read is left for the next run.
+
+    @Scheduled(initialDelayString = "${inventory.low-stock.reconcile-interval-ms:300000}",
+            fixedDelayString = "${inventory.low-stock.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        int drifted = 0;
+        for (Map.Entry<Long, StoreWatchlist> store : stores.entrySet()) {
+            StoreWatchlist watchlist = store.getValue();
+            long modCount;
+            synchronized (watchlist) {
+                modCount = watchlist.modCount;
+            }
+            StoreWatchlist fresh = read(store.getKey());
+            synchronized (watchlist) {
+                if (watchlist.modCount != modCount) {
+                    continue;
+                }
+                if (!watchlist.members.equals(fresh.members) || !watchlist.thresholds.equals(fresh.thresholds)) {
+                    drifted++;
+                    log.warn("Low-stock index for store {} drifted from the database; repaired", store.getKey());
+                    watchlist.replaceWith(fresh);
+                }
+            }
+        }
+        if (drifted > 0) {
+            log.warn("Low-stock reconciliation repaired {} of {} stores", drifted, stores.size());
+        }
+    }
+
+    boolean tracks(long storeId) {
+        return stores.containsKey(storeId);
+    }
+
+    private StoreWatchlist watchlist(long storeId) {
+        return stores.computeIfAbsent(storeId, id -> new StoreWatchlist());
+    }
+
+    private int thresholdOf(StoreWatchlist watchlist, long productId) {
+        return watchlist.thresholds.getOrDefault(productId, defaultThreshold);
+    }
+
+    // Swaps in the database state unless a stock event touched the store while it was being read.
+    private void load(long storeId, StoreWatchlist watchlist) {
+        for (int attempt = 0; attempt < LOAD_ATTEMPTS; attempt++) {
+            long modCount;
+            synchronized (watchlist) {
+                modCount = watchlist.modCount;
+            }
+            StoreWatchlist fresh = read(storeId);
+            synchronized (watchlist) {
+                if (watchlist.modCount == modCount) {
+                    watchlist.replaceWith(fresh);
+                    return;
+                }
+            }
+        }
+        // Busy store: keep the incrementally maintained state, reconciliation will verify it.
+        watchlist.loaded = true;
+    }
+
+    // Only rows that are low or carry a custom threshold are read.
+    private StoreWatchlist read(long storeId) {
+        StoreWatchlist fresh = new StoreWatchlist();
+        jdbcTemplate.query(
+                "SELECT product_id, stock_level, reorder_threshold FROM inventory " +
+                "WHERE store_id = ? AND (reorder_threshold IS NOT NULL OR stock_level <= ?)",
+                rs -> {
+                    long productId = rs.getLong("product_id");
+                    Integer stockLevel = rs.getObject("stock_level", Integer.class);
+                    Integer threshold = rs.getObject("reorder_threshold", Integer.class);
+                    if (threshold != null) {
+                        fresh.thresholds.put(productId, threshold);
+                    }
+                    fresh.apply(productId, stockLevel, threshold != null ? threshold : defaultThreshold);
+                },
+                storeId, defaultThreshold);
+        return fresh;
+    }
+
+    private static final class StoreWatchlist {
+
+        // Replaced wholesale on reload so readers never see a half-built set.
+        private volatile ConcurrentSkipListSet<LowStockEntry> ordered = new ConcurrentSkipListSet<>(MOST_URGENT_FIRST);
+        private volatile boolean loaded;
+
+        // Guarded by this.
+        private final Map<Long, LowStockEntry> members = new HashMap<>();
+        private final Map<Long, Integer> thresholds = new HashMap<>();
+        private long modCount;
+
+        void apply(long productId, Integer stockLevel, int threshold) {
+            modCount++;
+            LowStockEntry previous = members.remove(productId);
+            if (previous != null) {
+                ordered.remove(previous);
+            }
+            if (stockLevel != null && stockLevel <= threshold) {
+                LowStockEntry entry = new LowStockEntry(productId, stockLevel, threshold);
+                members.put(productId, entry);
+                ordered.add(entry);
+            }
+        }
+
+        void replaceWith(StoreWatchlist fresh) {
+            members.clear();
+            members.putAll(fresh.members);
+            thresholds.clear();
+            thresholds.putAll(fresh.thresholds);
+            ordered = fresh.ordered;
+            modCount++;
+            loaded = true;
+        }
+    }
+}
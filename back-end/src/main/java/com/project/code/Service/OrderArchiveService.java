@@ -0,0 +1,250 @@
+package com.project.code.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.code.model.ArchivedOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Moves whole months of orders that are older than the retention window out of MySQL into gzip-compressed
+// NDJSON files (one order with its items per line), then drops the month's partitions.
+// A month is only dropped after its file is on disk and holds exactly as many orders and items as the partitions.
+// The files live in `orders.archive.dir`, which must be a location every instance shares (e.g. a network mount):
+// the month is gone from MySQL once dropped, and every instance serves archived months from those files.
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private static final Pattern FILE = Pattern.compile("orders-(\\d{4}-\\d{2})\\.ndjson\\.gz");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderPartitionService orderPartitionService;
+
+    @Autowired
+    private ClusterLock clusterLock;
+
+    @Value("${orders.archive.enabled:false}")
+    private boolean enabled;
+
+    // No default: a directory local to one instance would leave the only copy of a dropped month on that instance.
+    @Value("${orders.archive.dir:}")
+    private String directory;
+
+    @Value("${orders.archive.retention-days:90}")
+    private int retentionDays;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the month.
+    @Value("${orders.archive.fetch-size:-2147483648}")
+    private int fetchSize;
+
+// 1. **archiveExpired Method**:
+//    - Archives and drops every month that ended before today minus `orders.archive.retention-days`.
+//    - Disabled unless `orders.archive.enabled=true`; needs both order tables partitioned by month.
+//    - Refuses to run until `orders.archive.dir` names an absolute, shared directory.
+//    - Runs on one instance at a time under the partition lock; the others skip the run.
+
+    @Scheduled(cron = "${orders.archive.cron:0 0 4 * * *}")
+    public void archiveExpired() {
+        if (!enabled) {
+            return;
+        }
+        if (directory.isBlank() || !Paths.get(directory).isAbsolute()) {
+            log.error("orders.archive.dir must be set to an absolute directory shared by all instances; not archiving");
+            return;
+        }
+        if (!clusterLock.runExclusively(OrderPartitionService.LOCK, this::archiveExpiredMonths)) {
+            log.debug("Order archival or partition maintenance is running on another instance; skipping");
+        }
+    }
+
+    private void archiveExpiredMonths() {
+        List<YearMonth> itemMonths = orderPartitionService.monthlyPartitions(OrderPartitionService.ORDER_ITEM);
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        for (YearMonth month : orderPartitionService.monthlyPartitions(OrderPartitionService.ORDER_DETAILS)) {
+            if (month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                break;
+            }
+            if (!itemMonths.contains(month)) {
+                log.warn("order_item has no partition for {}; not archiving it", month);
+                continue;
+            }
+            try {
+                archiveMonth(month);
+            } catch (IOException | RuntimeException e) {
+                log.error("Archiving orders of {} failed; the month stays in the database", month, e);
+                return;
+            }
+        }
+    }
+
+// 2. **archiveMonth Method**:
+//    - Writes the month to a temporary file, checks its counts against the partitions, moves it into place
+//      and only then drops the partitions. A failure at any step leaves the database untouched.
+
+    private void archiveMonth(YearMonth month) throws IOException {
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        Path target = dir.resolve(fileName(month));
+        Path temp = dir.resolve(fileName(month) + ".tmp");
+
+        long[] written = writeMonth(month, temp);
+        String partition = OrderPartitionService.partitionName(month);
+        Long orders = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_details PARTITION (" + partition + ")", Long.class);
+        Long items = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_item PARTITION (" + partition + ")", Long.class);
+        if (orders == null || items == null || written[0] != orders || written[1] != items) {
+            Files.deleteIfExists(temp);
+            throw new IllegalStateException("Archive of " + month + " holds " + written[0] + " orders / " + written[1]
+                    + " items, partitions hold " + orders + " / " + items);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        orderPartitionService.dropMonth(month);
+        log.info("Archived {} orders and {} items of {} to {}", orders, items, month, target);
+    }
+
+// 3. **archivedMonths Method**:
+//    - Returns the months that are served from archive files, i.e. that have a file and no partition any more.
+//    - A month whose partitions still exist is read from the database, so no order is ever reported twice.
+
+    public TreeSet<YearMonth> archivedMonths() {
+        TreeSet<YearMonth> months = new TreeSet<>();
+        if (directory.isBlank()) {
+            return months;
+        }
+        Path dir = Paths.get(directory);
+        if (!Files.isDirectory(dir)) {
+            return months;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "orders-*.ndjson.gz")) {
+            for (Path file : files) {
+                Matcher matcher = FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    months.add(YearMonth.parse(matcher.group(1)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        months.removeAll(orderPartitionService.monthlyPartitions(OrderPartitionService.ORDER_DETAILS));
+        return months;
+    }
+
+// 4. **read Method**:
+//    - Streams the orders of an archived month to `consumer` one at a time, in order id order.
+
+    public void read(YearMonth month, Consumer<ArchivedOrder> consumer) {
+        Path file = Paths.get(directory).resolve(fileName(month));
+        try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file)), 64 * 1024);
+             MappingIterator<ArchivedOrder> orders = objectMapper.readerFor(ArchivedOrder.class).readValues(in)) {
+            while (orders.hasNextValue()) {
+                consumer.accept(orders.nextValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Rows arrive ordered by order id, so an order is complete when the next id shows up.
+    private long[] writeMonth(YearMonth month, Path temp) throws IOException {
+        String partition = OrderPartitionService.partitionName(month);
+        long[] counts = new long[2];
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            GZIPOutputStream gzip = new GZIPOutputStream(file, 64 * 1024);
+            OutputStream out = new BufferedOutputStream(gzip, 64 * 1024);
+            SequenceWriter writer = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT od.id, od.customer_id, od.store_id, od.total_price, od.date, " +
+                        "oi.id AS item_id, oi.product_id, oi.quantity, oi.price " +
+                        "FROM order_details PARTITION (" + partition + ") od " +
+                        "LEFT JOIN order_item PARTITION (" + partition + ") oi ON oi.order_id = od.id " +
+                        "ORDER BY od.id, oi.id",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, (ResultSet rs) -> {
+                try {
+                    ArchivedOrder current = null;
+                    while (rs.next()) {
+                        long orderId = rs.getLong("id");
+                        if (current == null || current.id() != orderId) {
+                            if (current != null) {
+                                writer.write(current);
+                                counts[0]++;
+                            }
+                            current = new ArchivedOrder(orderId, rs.getObject("customer_id", Long.class),
+                                    rs.getObject("store_id", Long.class), rs.getObject("total_price", Double.class),
+                                    rs.getTimestamp("date").toLocalDateTime(), new ArrayList<>());
+                        }
+                        long itemId = rs.getLong("item_id");
+                        if (!rs.wasNull()) {
+                            current.items().add(new ArchivedOrder.Item(itemId, rs.getObject("product_id", Long.class),
+                                    rs.getObject("quantity", Integer.class), rs.getObject("price", Double.class)));
+                            counts[1]++;
+                        }
+                    }
+                    if (current != null) {
+                        writer.write(current);
+                        counts[0]++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+            writer.close();
+            out.flush();
+            gzip.finish();
+            // Durable before the rename makes it visible.
+            file.getFD().sync();
+        }
+        return counts;
+    }
+
+    private static String fileName(YearMonth month) {
+        return "orders-" + month + ".ndjson.gz";
+    }
+}
@@ -0,0 +1,260 @@
+package com.project.code.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.code.model.ArchivedOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Streams flattened order lines for a date range straight from a JDBC cursor to the client.
+// No entities are created, so memory stays flat however many lines the range holds.
+// Months that have been archived out of MySQL are read from their archive files when asked for.
+@Service
+public class OrderExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    // No ORDER BY: sorting millions of lines would make MySQL materialize them before the first row is sent.
+    private static final String EXPORT_SQL =
+            "SELECT od.id AS order_id, od.date AS order_date, od.store_id, od.customer_id, " +
+            "oi.product_id, p.name AS product_name, p.category, oi.quantity, oi.price " +
+            "FROM order_details od " +
+            "JOIN order_item oi ON oi.order_id = od.id " +
+            "LEFT JOIN product p ON p.id = oi.product_id " +
+            "WHERE od.date >= ? AND od.date < ?";
+
+    private static final String CSV_HEADER =
+            "order_id,order_date,store_id,customer_id,product_id,product_name,category,quantity,unit_price,line_total\n";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the result.
+    @Value("${reports.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+// 1. **export Method**:
+//    - Writes every order line with an order date in [from, to] to `out` and returns the number of lines.
+//    - With `includeArchived`, lines of archived months in the range come first, read from the archive files.
+//    - Runs in a read-only transaction, so the cursor is opened on a replica when one is configured.
+
+    public long export(LocalDate from, LocalDate to, Format format, boolean includeArchived, OutputStream out) {
+        LineWriter writer = format == Format.CSV ? new CsvLineWriter(out) : new NdjsonLineWriter(objectMapper, out);
+        try {
+            writer.start();
+            long lines = includeArchived ? exportArchived(from, to, writer) : 0;
+            lines += exportLive(from, to, writer);
+            writer.finish();
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long exportLive(LocalDate from, LocalDate to, LineWriter writer) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Long lines = readOnly.execute(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+            statement.setTimestamp(2, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            return statement;
+        }, rs -> {
+            long count = 0;
+            try {
+                while (rs.next()) {
+                    writer.line(rs.getLong("order_id"), rs.getTimestamp("order_date").toLocalDateTime(),
+                            rs.getLong("store_id"), rs.getLong("customer_id"), rs.getLong("product_id"),
+                            rs.getString("product_name"), rs.getString("category"),
+                            rs.getInt("quantity"), rs.getDouble("price"));
+                    count++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        }));
+        return lines == null ? 0 : lines;
+    }
+
+    // Archive files hold product ids only; names and categories come from the current catalog, as in the live query.
+    private long exportArchived(LocalDate from, LocalDate to, LineWriter writer) {
+        List<YearMonth> months = orderArchiveService.archivedMonths()
+                .subSet(YearMonth.from(from), true, YearMonth.from(to), true)
+                .stream().toList();
+        if (months.isEmpty()) {
+            return 0;
+        }
+        Map<Long, String[]> products = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name, category FROM product",
+                (RowCallbackHandler) rs -> products.put(rs.getLong("id"), new String[]{rs.getString("name"), rs.getString("category")}));
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        long[] lines = new long[1];
+        for (YearMonth month : months) {
+            orderArchiveService.read(month, order -> {
+                if (order.date().isBefore(start) || !order.date().isBefore(end)) {
+                    return;
+                }
+                for (ArchivedOrder.Item item : order.items()) {
+                    String[] product = item.productId() == null ? null : products.get(item.productId());
+                    try {
+                        writer.line(order.id(), order.date(), valueOf(order.storeId()), valueOf(order.customerId()),
+                                valueOf(item.productId()), product == null ? null : product[0], product == null ? null : product[1],
+                                item.quantity() == null ? 0 : item.quantity(), item.price() == null ? 0 : item.price());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    lines[0]++;
+                }
+            });
+        }
+        return lines[0];
+    }
+
+    private static long valueOf(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    private interface LineWriter {
+
+        void start() throws IOException;
+
+        void line(long orderId, LocalDateTime orderDate, long storeId, long customerId, long productId,
+                  String productName, String category, int quantity, double price) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvLineWriter implements LineWriter {
+
+        private final Writer writer;
+
+        CsvLineWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void line(long orderId, LocalDateTime orderDate, long storeId, long customerId, long productId,
+                         String productName, String category, int quantity, double price) throws IOException {
+            writer.write(Long.toString(orderId));
+            writer.write(',');
+            writer.write(orderDate.toString());
+            writer.write(',');
+            writer.write(Long.toString(storeId));
+            writer.write(',');
+            writer.write(Long.toString(customerId));
+            writer.write(',');
+            writer.write(Long.toString(productId));
+            writer.write(',');
+            writeCsvField(writer, productName);
+            writer.write(',');
+            writeCsvField(writer, category);
+            writer.write(',');
+            writer.write(Integer.toString(quantity));
+            writer.write(',');
+            writer.write(Double.toString(price));
+            writer.write(',');
+            writer.write(Double.toString(Math.round(quantity * price * 100) / 100.0));
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class NdjsonLineWriter implements LineWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonLineWriter(ObjectMapper objectMapper, OutputStream out) {
+            try {
+                this.generator = objectMapper.getFactory().createGenerator(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void line(long orderId, LocalDateTime orderDate, long storeId, long customerId, long productId,
+                         String productName, String category, int quantity, double price) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("orderId", orderId);
+            generator.writeStringField("orderDate", orderDate.toString());
+            generator.writeNumberField("storeId", storeId);
+            generator.writeNumberField("customerId", customerId);
+            generator.writeNumberField("productId", productId);
+            generator.writeStringField("productName", productName);
+            generator.writeStringField("category", category);
+            generator.writeNumberField("quantity", quantity);
+            generator.writeNumberField("unitPrice", price);
+            generator.writeNumberField("lineTotal", Math.round(quantity * price * 100) / 100.0);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,118 @@
+package com.project.code.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Maintains the monthly RANGE COLUMNS partitions of order_details (on date) and order_item (on order_date).
+// Partition pYYYYMM holds one calendar month; p_future catches anything beyond the last month and stays empty.
+// Tables that have not been partitioned yet (scripts/sql/order-partitions.sql) are left alone.
+// Every change to the partitions, here and in OrderArchiveService, runs under the cluster lock LOCK,
+// so instances never race each other's DDL.
+@Service
+public class OrderPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPartitionService.class);
+
+    public static final String ORDER_DETAILS = "order_details";
+    public static final String ORDER_ITEM = "order_item";
+
+    public static final String LOCK = "order-partitions";
+
+    private static final Pattern MONTHLY = Pattern.compile("p(\\d{4})(\\d{2})");
+    private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClusterLock clusterLock;
+
+    @Value("${orders.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+// 1. **monthlyPartitions Method**:
+//    - Returns the months that still have a partition in `table`, oldest first; empty if the table is not partitioned.
+
+    public List<YearMonth> monthlyPartitions(String table) {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, table);
+        List<YearMonth> months = new ArrayList<>(names.size());
+        for (String name : names) {
+            Matcher matcher = MONTHLY.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        return months;
+    }
+
+// 2. **ensurePartitions Method**:
+//    - Splits p_future so that both order tables have a partition for every month up to `orders.partitions.months-ahead`.
+//    - Runs at startup and daily; p_future is empty, so the split does not copy rows.
+//    - Only one instance runs it at a time, and it re-reads the partitions under the lock, so a month another
+//      instance has just added is not added twice. The others skip the run.
+
+    @Scheduled(cron = "${orders.partitions.maintenance-cron:0 15 2 * * *}")
+    public void ensurePartitions() {
+        if (!clusterLock.runExclusively(LOCK, this::addMissingPartitions)) {
+            log.debug("Partition maintenance is running on another instance; skipping");
+        }
+    }
+
+    // A failure at startup (e.g. DDL rejected by the server) must not stop the application; the daily run retries.
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitionsAtStartup() {
+        try {
+            ensurePartitions();
+        } catch (RuntimeException e) {
+            log.error("Partition maintenance at startup failed; it is retried on schedule", e);
+        }
+    }
+
+    private void addMissingPartitions() {
+        YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+        for (String table : List.of(ORDER_DETAILS, ORDER_ITEM)) {
+            List<YearMonth> months = monthlyPartitions(table);
+            if (months.isEmpty()) {
+                log.debug("Table {} is not partitioned by month; skipping partition maintenance", table);
+                continue;
+            }
+            for (YearMonth month = months.get(months.size() - 1).plusMonths(1); !month.isAfter(last); month = month.plusMonths(1)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION p_future INTO (" +
+                        "PARTITION " + partitionName(month) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "'), " +
+                        "PARTITION p_future VALUES LESS THAN (MAXVALUE))");
+                log.info("Added partition {} to {}", partitionName(month), table);
+            }
+        }
+    }
+
+// 3. **dropMonth Method**:
+//    - Drops one month from both order tables; items first, so no item is ever left without its order.
+//    - Only called once the month has been archived and verified.
+
+    public void dropMonth(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE " + ORDER_ITEM + " DROP PARTITION " + partitionName(month));
+        jdbcTemplate.execute("ALTER TABLE " + ORDER_DETAILS + " DROP PARTITION " + partitionName(month));
+    }
+
+    public static String partitionName(YearMonth month) {
+        return NAME.format(month);
+    }
+}
@@ -0,0 +1,222 @@
+package com.project.code.Service;
+
+import com.project.code.model.OrderPlacedEvent;
+import com.project.code.model.OrderReceipt;
+import com.project.code.repo.OrderReceiptRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Keeps the order_receipts collection in step with the orders: each committed order's receipt is
+// written in the background, and a scheduled job fills in any receipt that never made it.
+@Service
+public class OrderReceiptService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderReceiptService.class);
+
+    private static final String ASSEMBLE_SQL =
+            "SELECT od.id, od.date, od.total_price, " +
+            "s.id AS store_id, s.name AS store_name, s.address AS store_address, " +
+            "c.id AS customer_id, c.name AS customer_name, c.email AS customer_email, " +
+            "oi.product_id, p.name AS product_name, p.sku, oi.quantity, oi.price " +
+            "FROM order_details od " +
+            "LEFT JOIN store s ON s.id = od.store_id " +
+            "LEFT JOIN customers c ON c.id = od.customer_id " +
+            "LEFT JOIN order_item oi ON oi.order_id = od.id " +
+            "LEFT JOIN product p ON p.id = oi.product_id " +
+            "WHERE od.id IN (:ids) " +
+            "ORDER BY od.id, oi.id";
+
+    @Autowired
+    private OrderReceiptRepository orderReceiptRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${orders.receipts.rebuild-page-size:1000}")
+    private int pageSize;
+
+    @Value("${orders.receipts.queue-size:10000}")
+    private int queueSize;
+
+    // Orders older than this are not checked by the nightly repair; `rebuild` covers the whole history.
+    @Value("${orders.receipts.repair-window-days:7}")
+    private int repairWindowDays;
+
+    private ThreadPoolExecutor writer;
+
+    @PostConstruct
+    void start() {
+        // A full queue drops the write; the rebuild job writes the receipt later.
+        writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "order-receipts");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> log.warn("Order receipt queue full; receipt left to the rebuild job"));
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+// 1. **receipt Method**:
+//    - Returns the receipt of an order with one primary-key read.
+//    - A receipt that is missing (e.g. not written yet) is assembled from the order tables and stored.
+
+    public Optional<OrderReceipt> receipt(long orderId) {
+        Optional<OrderReceipt> receipt = orderReceiptRepository.findById(orderId);
+        if (receipt.isPresent()) {
+            return receipt;
+        }
+        List<OrderReceipt> assembled = assemble(List.of(orderId));
+        if (assembled.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(orderReceiptRepository.save(assembled.get(0)));
+    }
+
+    // The customer is stored as on the customers row, as `assemble` reads it: an existing customer keeps its
+    // name even when an order gives a different one.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        writer.execute(() -> {
+            OrderReceipt receipt = event.receipt();
+            try {
+                Map<String, Object> customer = jdbcTemplate.queryForMap(
+                        "SELECT name, email FROM customers WHERE id = ?", receipt.customerId());
+                orderReceiptRepository.save(new OrderReceipt(receipt.orderId(), receipt.date(), receipt.totalPrice(),
+                        receipt.storeId(), receipt.storeName(), receipt.storeAddress(), receipt.customerId(),
+                        (String) customer.get("name"), (String) customer.get("email"), receipt.items()));
+            } catch (RuntimeException e) {
+                log.warn("Could not write receipt of order {}; left to the rebuild job", receipt.orderId(), e);
+            }
+        });
+    }
+
+// 2. **rebuild Method**:
+//    - Walks orders by id in pages and writes the receipts that are missing (or all of them when `overwrite`).
+//    - The nightly repair only walks the orders of the last `orders.receipts.repair-window-days`, which on
+//      date-partitioned order tables touches only the recent partitions; returns the number of receipts written.
+
+    @Scheduled(cron = "${orders.receipts.rebuild-cron:0 30 3 * * *}")
+    public void repairMissing() {
+        rebuild(false, LocalDateTime.now().minusDays(repairWindowDays));
+    }
+
+    public int rebuild(boolean overwrite) {
+        return rebuild(overwrite, null);
+    }
+
+    private int rebuild(boolean overwrite, LocalDateTime since) {
+        int written = 0;
+        long lastId = 0;
+        while (true) {
+            List<Long> ids = since == null
+                    ? jdbcTemplate.queryForList(
+                            "SELECT id FROM order_details WHERE id > ? ORDER BY id LIMIT ?", Long.class, lastId, pageSize)
+                    : jdbcTemplate.queryForList(
+                            "SELECT id FROM order_details WHERE date >= ? AND id > ? ORDER BY id LIMIT ?", Long.class,
+                            Timestamp.valueOf(since), lastId, pageSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            lastId = ids.get(ids.size() - 1);
+            List<Long> toWrite = ids;
+            if (!overwrite) {
+                Set<Long> present = new HashSet<>();
+                orderReceiptRepository.findAllById(ids).forEach(receipt -> present.add(receipt.orderId()));
+                toWrite = ids.stream().filter(id -> !present.contains(id)).toList();
+            }
+            if (!toWrite.isEmpty()) {
+                written += orderReceiptRepository.saveAll(assemble(toWrite)).size();
+            }
+        }
+        if (written > 0) {
+            log.info("Order receipt rebuild wrote {} receipts", written);
+        }
+        return written;
+    }
+
+    private List<OrderReceipt> assemble(Collection<Long> orderIds) {
+        Map<Long, ReceiptRows> orders = new LinkedHashMap<>();
+        namedParameterJdbcTemplate.query(ASSEMBLE_SQL, Map.of("ids", orderIds), rs -> {
+            long orderId = rs.getLong("id");
+            ReceiptRows rows = orders.get(orderId);
+            if (rows == null) {
+                Timestamp date = rs.getTimestamp("date");
+                rows = new ReceiptRows(orderId, date == null ? null : date.toLocalDateTime(),
+                        rs.getObject("total_price", Double.class),
+                        rs.getLong("store_id"), rs.getString("store_name"), rs.getString("store_address"),
+                        rs.getLong("customer_id"), rs.getString("customer_name"), rs.getString("customer_email"));
+                orders.put(orderId, rows);
+            }
+            long productId = rs.getLong("product_id");
+            if (!rs.wasNull()) {
+                rows.items.add(OrderReceipt.Line.of(productId, rs.getString("product_name"), rs.getString("sku"),
+                        rs.getInt("quantity"), rs.getObject("price", Double.class)));
+            }
+        });
+        return orders.values().stream().map(ReceiptRows::toReceipt).toList();
+    }
+
+    private static final class ReceiptRows {
+
+        private final long orderId;
+        private final LocalDateTime date;
+        private final Double totalPrice;
+        private final long storeId;
+        private final String storeName;
+        private final String storeAddress;
+        private final long customerId;
+        private final String customerName;
+        private final String customerEmail;
+        private final List<OrderReceipt.Line> items = new ArrayList<>();
+
+        ReceiptRows(long orderId, LocalDateTime date, Double totalPrice, long storeId, String storeName, String storeAddress,
+                    long customerId, String customerName, String customerEmail) {
+            this.orderId = orderId;
+            this.date = date;
+            this.totalPrice = totalPrice;
+            this.storeId = storeId;
+            this.storeName = storeName;
+            this.storeAddress = storeAddress;
+            this.customerId = customerId;
+            this.customerName = customerName;
+            this.customerEmail = customerEmail;
+        }
+
+        OrderReceipt toReceipt() {
+            return new OrderReceipt(orderId, date, totalPrice,
+                    storeId, storeName, storeAddress, customerId, customerName, customerEmail, List.copyOf(items));
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.project.code.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable, memory-mapped column file of order lines. Layout (little endian):
+//   header   int magic, int version, int rows, int minDay, int maxDay, int dictionarySize
+//   dict     dictionarySize x (int length, UTF-8 bytes), padded to 8 bytes
+//   columns  long productId[rows], long priceCents[rows], int storeId[rows], int quantity[rows],
+//            int epochDay[rows], int category[rows] (index into the dictionary, -1 when unknown)
+// Columns are read through buffer views on the mapping, so scans touch only the pages they need.
+final class OrderSegment {
+
+    static final int NO_CATEGORY = -1;
+
+    private static final int MAGIC = 0x4F534547;
+    private static final int VERSION = 1;
+
+    final int rows;
+    final int minDay;
+    final int maxDay;
+    final String[] categories;
+    final LongBuffer productId;
+    final LongBuffer priceCents;
+    final IntBuffer storeId;
+    final IntBuffer quantity;
+    final IntBuffer epochDay;
+    final IntBuffer category;
+
+    // Local category code -> store-wide code, assigned once when the segment is registered.
+    int[] globalCategory = new int[0];
+
+    private OrderSegment(ByteBuffer data) {
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        if (data.getInt() != MAGIC || data.getInt() != VERSION) {
+            throw new IllegalArgumentException("Not an order segment");
+        }
+        rows = data.getInt();
+        minDay = data.getInt();
+        maxDay = data.getInt();
+        categories = new String[data.getInt()];
+        for (int i = 0; i < categories.length; i++) {
+            byte[] bytes = new byte[data.getInt()];
+            data.get(bytes);
+            categories[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        int offset = align(data.position());
+        productId = slice(data, offset, rows * 8L).asLongBuffer();
+        offset += rows * 8;
+        priceCents = slice(data, offset, rows * 8L).asLongBuffer();
+        offset += rows * 8;
+        storeId = slice(data, offset, rows * 4L).asIntBuffer();
+        offset += rows * 4;
+        quantity = slice(data, offset, rows * 4L).asIntBuffer();
+        offset += rows * 4;
+        epochDay = slice(data, offset, rows * 4L).asIntBuffer();
+        offset += rows * 4;
+        category = slice(data, offset, rows * 4L).asIntBuffer();
+    }
+
+    static OrderSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed.
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OrderSegment(mapped);
+        }
+    }
+
+    // Wraps an in-memory copy; used by tests.
+    static OrderSegment of(ByteBuffer data) {
+        return new OrderSegment(data);
+    }
+
+    private static ByteBuffer slice(ByteBuffer data, int offset, long length) {
+        return data.slice(offset, Math.toIntExact(length)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int align(int position) {
+        return (position + 7) & ~7;
+    }
+
+    // Collects rows in heap arrays and writes them out as one segment.
+    static final class Builder {
+
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> categories = new ArrayList<>();
+        private long[] productIds = new long[1024];
+        private long[] prices = new long[1024];
+        private int[] stores = new int[1024];
+        private int[] quantities = new int[1024];
+        private int[] days = new int[1024];
+        private int[] categoryCodes = new int[1024];
+        private int rows;
+        private int minDay = Integer.MAX_VALUE;
+        private int maxDay = Integer.MIN_VALUE;
+
+        void add(int storeId, long productId, int quantity, long priceCents, int epochDay, String category) {
+            if (rows == stores.length) {
+                int capacity = rows * 2;
+                productIds = Arrays.copyOf(productIds, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                stores = Arrays.copyOf(stores, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                days = Arrays.copyOf(days, capacity);
+                categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+            }
+            productIds[rows] = productId;
+            prices[rows] = priceCents;
+            stores[rows] = storeId;
+            quantities[rows] = quantity;
+            days[rows] = epochDay;
+            categoryCodes[rows] = category == null ? NO_CATEGORY : dictionary.computeIfAbsent(category, name -> {
+                categories.add(name);
+                return categories.size() - 1;
+            });
+            minDay = Math.min(minDay, epochDay);
+            maxDay = Math.max(maxDay, epochDay);
+            rows++;
+        }
+
+        int rows() {
+            return rows;
+        }
+
+        ByteBuffer toBuffer() {
+            List<byte[]> names = new ArrayList<>(categories.size());
+            int dictionaryBytes = 0;
+            for (String name : categories) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                names.add(bytes);
+                dictionaryBytes += 4 + bytes.length;
+            }
+            int columns = align(24 + dictionaryBytes);
+            ByteBuffer out = ByteBuffer.allocate(Math.toIntExact(columns + rows * 32L)).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC).putInt(VERSION).putInt(rows)
+                    .putInt(rows == 0 ? 0 : minDay).putInt(rows == 0 ? -1 : maxDay).putInt(names.size());
+            for (byte[] name : names) {
+                out.putInt(name.length).put(name);
+            }
+            out.position(columns);
+            out.asLongBuffer().put(productIds, 0, rows);
+            out.position(out.position() + rows * 8);
+            out.asLongBuffer().put(prices, 0, rows);
+            out.position(out.position() + rows * 8);
+            for (int[] column : new int[][]{stores, quantities, days, categoryCodes}) {
+                out.asIntBuffer().put(column, 0, rows);
+                out.position(out.position() + rows * 4);
+            }
+            return out.flip();
+        }
+
+        void writeTo(Path file) throws IOException {
+            ByteBuffer data = toBuffer();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+                channel.force(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.project.code.Service;
+
+import com.project.code.model.ArchivedOrder;
+import com.project.code.model.RevenueRow;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+// Embedded columnar copy of order lines for analytics. Every closed day is exported once from MySQL (or from the
+// archive file of its month once archived) into an immutable, memory-mapped segment file; revenue reports are then
+// computed from the segments alone, in parallel, without a query against the order tables.
+@Service
+public class OrderSegmentStore {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSegmentStore.class);
+
+    private static final Pattern SEGMENT = Pattern.compile("day-(-?\\d+)\\.seg");
+    private static final String WATERMARK = "exported-through";
+
+    private static final String DAY_SQL =
+            "SELECT od.store_id, oi.product_id, oi.quantity, oi.price, od.date, p.category " +
+            "FROM order_details od " +
+            "JOIN order_item oi ON oi.order_id = od.id " +
+            "LEFT JOIN product p ON p.id = oi.product_id " +
+            "WHERE od.date >= ? AND od.date < ? " +
+            // Same range on order_item's partitioning column, so each day only touches one partition of both tables.
+            "AND oi.order_date >= ? AND oi.order_date < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Value("${analytics.segments.dir:order-segments}")
+    private String directory;
+
+    // A day is exported once it has been over for this long, so late commits and replica lag are included.
+    @Value("${analytics.segments.close-after-hours:2}")
+    private int closeAfterHours;
+
+    @Value("${analytics.segments.parallelism:0}")
+    private int parallelism;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the day.
+    @Value("${analytics.segments.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    private ForkJoinPool pool;
+
+    // Replaced wholesale when segments are added; readers take the current list.
+    private volatile List<OrderSegment> segments = List.of();
+
+    // Store-wide category dictionary; guarded by this.
+    private final Map<String, Integer> categoryCodes = new HashMap<>();
+    private volatile String[] categoryNames = new String[0];
+
+    @PostConstruct
+    void start() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+// 1. **revenue Method**:
+//    - Sums revenue, quantity and order lines for order days in [from, to], optionally for one store.
+//    - Groups by any combination of month, store and category; served from the mapped segments only.
+//    - Days that are not closed or not exported yet are not included.
+
+    public List<RevenueRow> revenue(LocalDate from, LocalDate to, Long storeId, boolean byMonth, boolean byStore, boolean byCategory) {
+        RevenueAggregator aggregator = new RevenueAggregator(from, to, storeId == null ? -1 : storeId, byMonth, byStore, byCategory);
+        return aggregator.aggregate(pool, segments, categoryNames);
+    }
+
+// 2. **exportedThrough Method**:
+//    - Returns the last order day included in the segments, or null before the first export.
+
+    public LocalDate exportedThrough() {
+        try {
+            Path watermark = Paths.get(directory).resolve(WATERMARK);
+            if (!Files.exists(watermark)) {
+                return null;
+            }
+            return LocalDate.ofEpochDay(Long.parseLong(Files.readString(watermark, StandardCharsets.UTF_8).trim()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+// 3. **load Method**:
+//    - Maps every segment file in `analytics.segments.dir` once the application is up.
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() throws IOException {
+        Path dir = Paths.get(directory);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        List<OrderSegment> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "day-*.seg")) {
+            for (Path file : files) {
+                if (SEGMENT.matcher(file.getFileName().toString()).matches()) {
+                    loaded.add(register(OrderSegment.open(file)));
+                }
+            }
+        }
+        loaded.sort(Comparator.comparingInt(segment -> segment.minDay));
+        segments = List.copyOf(loaded);
+        log.info("Mapped {} order segments", loaded.size());
+    }
+
+// 4. **exportClosedDays Method**:
+//    - Exports each closed day after the watermark (or from the first order) into its own segment file.
+//    - Days of archived months are exported from the archive files, so a new instance covers the full history
+//      and not only the months still in MySQL.
+//    - A segment is written to a temporary file and moved into place before the watermark advances,
+//      so an interrupted run resumes at the first missing day.
+
+    @Scheduled(initialDelayString = "${analytics.segments.export-interval-ms:3600000}",
+            fixedDelayString = "${analytics.segments.export-interval-ms:3600000}")
+    public void exportClosedDays() {
+        LocalDate lastClosed = LocalDateTime.now().minusHours(closeAfterHours).toLocalDate().minusDays(1);
+        TreeSet<YearMonth> archived = orderArchiveService.archivedMonths();
+        LocalDate through = exportedThrough();
+        LocalDate day;
+        if (through != null) {
+            day = through.plusDays(1);
+        } else {
+            day = firstOrderDay(archived);
+            if (day == null) {
+                return;
+            }
+        }
+        int exported = 0;
+        try {
+            Path dir = Files.createDirectories(Paths.get(directory));
+            while (!day.isAfter(lastClosed)) {
+                YearMonth month = YearMonth.from(day);
+                if (archived.contains(month)) {
+                    Map<LocalDate, OrderSegment.Builder> days = readArchivedMonth(month);
+                    for (; !day.isAfter(month.atEndOfMonth()) && !day.isAfter(lastClosed); day = day.plusDays(1)) {
+                        OrderSegment.Builder builder = days.get(day);
+                        exported += writeDay(dir, day, builder == null ? new OrderSegment.Builder() : builder);
+                    }
+                    continue;
+                }
+                OrderSegment.Builder builder = readDay(day);
+                if (day.equals(month.atEndOfMonth()) && orderArchiveService.archivedMonths().contains(month)) {
+                    // The month was archived and dropped while it was being read; export it again from its file.
+                    archived.add(month);
+                    day = month.atDay(1);
+                    continue;
+                }
+                exported += writeDay(dir, day, builder);
+                day = day.plusDays(1);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Order segment export stopped at {}; it resumes there on the next run", day, e);
+        }
+        if (exported > 0) {
+            log.info("Exported {} order days into segments", exported);
+        }
+    }
+
+    private LocalDate firstOrderDay(TreeSet<YearMonth> archived) {
+        if (!archived.isEmpty()) {
+            return archived.first().atDay(1);
+        }
+        Timestamp first = jdbcTemplate.queryForObject("SELECT MIN(date) FROM order_details", Timestamp.class);
+        return first == null ? null : first.toLocalDateTime().toLocalDate();
+    }
+
+    // Writes the day's segment when it has rows, then advances the watermark past the day.
+    private int writeDay(Path dir, LocalDate day, OrderSegment.Builder builder) throws IOException {
+        int written = 0;
+        if (builder.rows() > 0) {
+            Path target = dir.resolve("day-" + day.toEpochDay() + ".seg");
+            Path temp = dir.resolve("day-" + day.toEpochDay() + ".seg.tmp");
+            builder.writeTo(temp);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            add(register(OrderSegment.open(target)));
+            written = 1;
+        }
+        Path temp = dir.resolve(WATERMARK + ".tmp");
+        Files.writeString(temp, Long.toString(day.toEpochDay()), StandardCharsets.UTF_8);
+        Files.move(temp, dir.resolve(WATERMARK), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    // The archive file is read once per month, so the month's days are built together. Categories are today's,
+    // as for days read from MySQL; products deleted since have none.
+    private Map<LocalDate, OrderSegment.Builder> readArchivedMonth(YearMonth month) {
+        Map<Long, String> categories = new HashMap<>();
+        jdbcTemplate.query("SELECT id, category FROM product",
+                (RowCallbackHandler) rs -> categories.put(rs.getLong("id"), rs.getString("category")));
+        Map<LocalDate, OrderSegment.Builder> days = new HashMap<>();
+        orderArchiveService.read(month, (ArchivedOrder order) -> {
+            LocalDate day = order.date().toLocalDate();
+            OrderSegment.Builder builder = days.computeIfAbsent(day, ignored -> new OrderSegment.Builder());
+            int storeId = order.storeId() == null ? 0 : Math.toIntExact(order.storeId());
+            for (ArchivedOrder.Item item : order.items()) {
+                long productId = item.productId() == null ? 0 : item.productId();
+                builder.add(storeId, productId, item.quantity() == null ? 0 : item.quantity(),
+                        item.price() == null ? 0 : Math.round(item.price() * 100), (int) day.toEpochDay(),
+                        categories.get(productId));
+            }
+        });
+        return days;
+    }
+
+    // Read-only transaction: the day is read from a replica when one is configured.
+    private OrderSegment.Builder readDay(LocalDate day) {
+        OrderSegment.Builder builder = new OrderSegment.Builder();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(DAY_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, Timestamp.valueOf(day.atStartOfDay()));
+            statement.setTimestamp(2, Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+            statement.setTimestamp(3, Timestamp.valueOf(day.atStartOfDay()));
+            statement.setTimestamp(4, Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+            return statement;
+        }, rs -> {
+            builder.add(Math.toIntExact(rs.getLong("store_id")), rs.getLong("product_id"), rs.getInt("quantity"),
+                    Math.round(rs.getDouble("price") * 100), (int) day.toEpochDay(), rs.getString("category"));
+        }));
+        return builder;
+    }
+
+    private synchronized OrderSegment register(OrderSegment segment) {
+        int[] global = new int[segment.categories.length];
+        for (int i = 0; i < global.length; i++) {
+            global[i] = categoryCodes.computeIfAbsent(segment.categories[i], name -> categoryCodes.size());
+        }
+        segment.globalCategory = global;
+        if (categoryNames.length != categoryCodes.size()) {
+            String[] names = new String[categoryCodes.size()];
+            categoryCodes.forEach((name, code) -> names[code] = name);
+            categoryNames = names;
+        }
+        return segment;
+    }
+
+    private synchronized void add(OrderSegment segment) {
+        List<OrderSegment> next = new ArrayList<>(segments);
+        next.removeIf(existing -> existing.minDay == segment.minDay && existing.maxDay == segment.maxDay);
+        next.add(segment);
+        next.sort(Comparator.comparingInt(existing -> existing.minDay));
+        segments = List.copyOf(next);
+    }
+}
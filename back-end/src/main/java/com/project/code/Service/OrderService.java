@@ -1,33 +1,142 @@
 package com.project.code.Service;
 
+import com.project.code.model.Customer;
+import com.project.code.model.Inventory;
+import com.project.code.model.OrderDetails;
+import com.project.code.model.OrderItem;
+import com.project.code.model.OrderPlacedEvent;
+import com.project.code.model.OrderReceipt;
+import com.project.code.model.PlaceOrderRequestDTO;
+import com.project.code.model.StockChangeEvent;
+import com.project.code.model.Product;
+import com.project.code.model.PurchaseProductDTO;
+import com.project.code.model.Store;
+import com.project.code.repo.CustomerRepository;
+import com.project.code.repo.InventoryRepository;
+import com.project.code.repo.OrderDetailsRepository;
+import com.project.code.repo.OrderItemRepository;
+import com.project.code.repo.ProductRepository;
+import com.project.code.repo.StoreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
 public class OrderService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private OrderDetailsRepository orderDetailsRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private StockMatrix stockMatrix;
+
+    @Autowired
+    private CustomerIdCache customerIdCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
 // 1. **saveOrder Method**:
 //    - Processes a customer's order, including saving the order details and associated items.
 //    - Parameters: `PlaceOrderRequestDTO placeOrderRequest` (Request data for placing an order)
-//    - Return Type: `void` (This method doesn't return anything, it just processes the order)
+//    - Return Type: `Long` (the id of the new order)
+//    - Publishes the order's receipt, which is stored in the order read model once the order commits.
 
-    public void saveOrder(PlaceOrderRequestDTO placeOrderRequest) {
-        // Implementation steps:
-        
+    // Runs as one read-write transaction, so the whole order is written through the primary DataSource.
+    @Transactional
+    public Long saveOrder(PlaceOrderRequestDTO placeOrderRequest) {
+        checkAvailability(placeOrderRequest.getStoreId(), placeOrderRequest.getPurchaseProduct());
+        long customerId = resolveCustomerId(placeOrderRequest.getCustomerEmail(),
+                placeOrderRequest.getCustomerName(), placeOrderRequest.getCustomerPhone());
+        // Only the foreign key is needed; the reference is never initialized.
+        Customer customer = customerRepository.getReferenceById(customerId);
+        Store store = retrieveStore(placeOrderRequest.getStoreId());
+        OrderDetails orderDetails = createOrderDetails(customer, store, placeOrderRequest.getTotalPrice());
+        List<OrderReceipt.Line> lines = createAndSaveOrderItems(orderDetails, placeOrderRequest.getPurchaseProduct());
+        eventPublisher.publishEvent(new OrderPlacedEvent(new OrderReceipt(orderDetails.getId(), orderDetails.getDate(),
+                orderDetails.getTotalPrice(), store.getId(), store.getName(), store.getAddress(),
+                customerId, placeOrderRequest.getCustomerName(), placeOrderRequest.getCustomerEmail(), lines)));
+        return orderDetails.getId();
+    }
+
+// 1a. **checkAvailability Method**:
+//    - Rejects an order that cannot be filled before anything is written.
+//    - The stock matrix only says where to look: it can be stale (restocks by other instances or plain SQL),
+//      so a product it reports short is confirmed against its inventory row, and the matrix corrected, before rejecting.
+
+    private void checkAvailability(Long storeId, List<PurchaseProductDTO> products) {
+        for (PurchaseProductDTO op : products) {
+            if (Boolean.FALSE.equals(stockMatrix.isAvailable(storeId, op.getId(), op.getQuantity()))) {
+                long readStartedAt = stockMatrix.sequence();
+                Inventory inventory = inventoryRepository.findByProduct_IdAndStore_Id(op.getId(), storeId);
+                Integer stockLevel = inventory == null ? null : inventory.getStockLevel();
+                stockMatrix.correct(storeId, op.getId(), stockLevel, readStartedAt);
+                if (stockLevel == null || stockLevel < op.getQuantity()) {
+                    throw new RuntimeException("Insufficient stock for product ID: " + op.getId());
+                }
+            }
+        }
     }
 
 // 2. **Retrieve or Create the Customer**:
 //    - Check if the customer exists by their email using `findByEmail`.
 //    - If the customer exists, use the existing customer; otherwise, create and save a new customer using `customerRepository.save()`.
+//    - Resolved through `resolveCustomerId`; the returned customer is an uninitialized reference.
 
-    public void retrieveOrCreateCustomer(String email) {
-        // Implementation steps:
-        if (customerRepository.findByEmail(email) != null) {
-            return Customer existingCustomer = customerRepository.findByEmail(email);
-        } else {
-            // Create and save new customer
-            Customer newCustomer = new Customer();
-            newCustomer.setEmail(email);
-            customerRepository.save(newCustomer);
+    public Customer retrieveOrCreateCustomer(String email, String name, String phone) {
+        return customerRepository.getReferenceById(resolveCustomerId(email, name, phone));
+    }
+
+// 2a. **resolveCustomerId Method**:
+//    - Returns the id of the customer with this email, creating the customer if needed.
+//    - Cached emails cost no query; otherwise one upsert plus LAST_INSERT_ID(), race-free thanks to the unique email index.
+//    - The email is trimmed once, before both the upsert and the cache, so they always agree on the key.
+//    - A missing or blank email is stored as null and never cached: each such order gets a new customer, as before.
+//    - An existing customer's name and phone are left as they are.
+
+    public long resolveCustomerId(String email, String name, String phone) {
+        String normalized = normalizeEmail(email);
+        if (normalized != null) {
+            Long cached = customerIdCache.get(normalized);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        customerRepository.upsertByEmail(name, normalized, phone);
+        long customerId = customerRepository.lastInsertId();
+        if (normalized != null) {
+            customerIdCache.putAfterCommit(normalized, customerId);
+        }
+        return customerId;
+    }
+
+    private static String normalizeEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
         }
-        
+        return email.trim();
     }
+
 // 3. **Retrieve the Store**:
 //    - Fetch the store by ID from `storeRepository`.
 //    - If the store doesn't exist, throw an exception. Use `storeRepository.findById()`.
@@ -59,23 +168,33 @@ public class OrderService {
 // 5. **Create and Save OrderItems**:
 //    - For each product purchased, find the corresponding inventory, update stock levels, and save the changes using `inventoryRepository.save()`.
 //    - Create and save `OrderItem` for each product and associate it with the `OrderDetails` using `orderItemRepository.save()`.
+//    - Returns the receipt lines of the saved items.
 
-    public void createAndSaveOrderItems(OrderDetails orderDetails, List<PlaceOrderRequestDTO.OrderProduct> products) {
+    public List<OrderReceipt.Line> createAndSaveOrderItems(OrderDetails orderDetails, List<PurchaseProductDTO> products) {
         // Implementation steps:
-        for (PlaceOrderRequestDTO.OrderProduct op : products) {
-            Inventory inventory = inventoryRepository.findByStoreIdAndProductId(orderDetails.getStore().getId(), op.getProductId());
-            if (inventory == null || inventory.getStock() < op.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for product ID: " + op.getProductId());
+        List<OrderReceipt.Line> lines = new ArrayList<>(products.size());
+        for (PurchaseProductDTO op : products) {
+            Inventory inventory = inventoryRepository.findByProduct_IdAndStore_Id(op.getId(), orderDetails.getStore().getId());
+            if (inventory == null || inventory.getStockLevel() < op.getQuantity()) {
+                throw new RuntimeException("Insufficient stock for product ID: " + op.getId());
             }
             // Update stock
-            inventory.setStock(inventory.getStock() - op.getQuantity());
+            int previousLevel = inventory.getStockLevel();
+            inventory.setStockLevel(previousLevel - op.getQuantity());
             inventoryRepository.save(inventory);
+            // Delivered to listeners only after the order commits.
+            eventPublisher.publishEvent(new StockChangeEvent(orderDetails.getStore().getId(), op.getId(),
+                    previousLevel, inventory.getStockLevel()));
             
             // Create and save OrderItem
-            Product product = productRepository.findById(op.getProductId());
+            Product product = productRepository.findById(op.getId())
+                    .orElseThrow(() -> new RuntimeException("Product not found: " + op.getId()));
             OrderItem orderItem = new OrderItem(orderDetails, product, op.getQuantity(), product.getPrice());
             orderItemRepository.save(orderItem);
+            lines.add(OrderReceipt.Line.of(product.getId(), product.getName(), product.returnSku(),
+                    op.getQuantity(), product.getPrice()));
         }
+        return lines;
     }
    
 }
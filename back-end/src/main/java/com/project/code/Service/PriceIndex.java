@@ -0,0 +1,284 @@
+package com.project.code.Service;
+
+import com.project.code.model.ProductChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+
+// In-memory price index: sorted primitive segments for the whole catalog and for each category.
+// Price changes land in a small pending map that readers overlay on the segments; a background
+// merge folds them in and publishes new segments, so readers never wait for writers.
+@Service
+public class PriceIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceIndex.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Pending changes that trigger a merge on the writing thread instead of waiting for the schedule.
+    @Value("${catalog.price-index.max-pending:1024}")
+    private int maxPending = 1024;
+
+    // Segments and pending changes are published together, so a reader always sees a consistent pair.
+    // Writers add to the pending map under this; merges replace the snapshot under this.
+    // The first snapshot's pending map takes writes like any other, so it is not shared between instances.
+    private volatile Snapshot snapshot = new Snapshot(PriceSegment.EMPTY, Map.of(), new ConcurrentHashMap<>());
+
+    private volatile boolean loaded;
+
+    // Guarded by mergeLock: the category each product was last merged under.
+    private final ReentrantLock mergeLock = new ReentrantLock();
+    private final Map<Long, String> mergedCategories = new HashMap<>();
+
+// 1. **productIds Method**:
+//    - Returns up to `limit` product ids priced within [min, max], cheapest first (ties by id).
+//    - `category` restricts the search to one category's segment; null searches the whole catalog.
+//    - `filter` can reject ids (e.g. products not stocked by a store) without stopping the scan.
+
+    public long[] productIds(double min, double max, String category, LongPredicate filter, int limit) {
+        ensureLoaded();
+        Snapshot current = snapshot;
+        PriceSegment segment = category == null ? current.all() : current.byCategory().getOrDefault(category, PriceSegment.EMPTY);
+        // Writers keep changing the live pending map, so it is copied once: the ids of every pending change,
+        // and the changes that fall into the range, sorted like the segment. Sort, merge and skip check
+        // only ever look at these copies, so they all agree on one view of the pending changes.
+        long[] pendingIds = new long[0];
+        List<Overlay> overlay = new ArrayList<>();
+        Map<Long, PendingPrice> pending = current.pending();
+        if (!pending.isEmpty()) {
+            int count = 0;
+            pendingIds = new long[pending.size()];
+            for (Map.Entry<Long, PendingPrice> entry : pending.entrySet()) {
+                if (count == pendingIds.length) {
+                    pendingIds = Arrays.copyOf(pendingIds, count * 2);
+                }
+                pendingIds[count++] = entry.getKey();
+                PendingPrice change = entry.getValue();
+                if (!change.removed() && change.price() >= min && change.price() <= max
+                        && (category == null || category.equals(change.category()))) {
+                    overlay.add(new Overlay(entry.getKey(), change.price()));
+                }
+            }
+            pendingIds = Arrays.copyOf(pendingIds, count);
+            Arrays.sort(pendingIds);
+            overlay.sort((a, b) -> PriceSegment.compare(a.price(), a.productId(), b.price(), b.productId()));
+        }
+
+        long[] result = new long[Math.min(limit, 64)];
+        int n = 0;
+        int i = segment.lowerBound(min);
+        int j = 0;
+        while (n < limit) {
+            boolean segmentLeft = i < segment.size() && segment.price(i) <= max;
+            boolean overlayLeft = j < overlay.size();
+            if (!segmentLeft && !overlayLeft) {
+                break;
+            }
+            long productId;
+            if (segmentLeft && (!overlayLeft || PriceSegment.compare(segment.price(i), segment.productId(i),
+                    overlay.get(j).price(), overlay.get(j).productId()) <= 0)) {
+                productId = segment.productId(i++);
+                if (pendingIds.length > 0 && Arrays.binarySearch(pendingIds, productId) >= 0) {
+                    // Superseded by a pending change, which the overlay accounts for.
+                    continue;
+                }
+            } else {
+                productId = overlay.get(j++).productId();
+            }
+            if (filter.test(productId)) {
+                if (n == result.length) {
+                    result = Arrays.copyOf(result, Math.min(limit, n * 2));
+                }
+                result[n++] = productId;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        PendingPrice change = event.deleted() || event.price() == null
+                ? PendingPrice.REMOVED
+                : new PendingPrice(event.category(), event.price(), false);
+        int pendingSize;
+        synchronized (this) {
+            Map<Long, PendingPrice> pending = snapshot.pending();
+            pending.put(event.productId(), change);
+            pendingSize = pending.size();
+        }
+        if (pendingSize >= maxPending) {
+            merge();
+        }
+    }
+
+// 2. **merge Method**:
+//    - Folds the pending changes into new segments and publishes them.
+//    - Only the catalog segment and the categories touched by the changes are rewritten.
+//    - Changes that arrive while the merge runs stay pending for the next one.
+
+    @Scheduled(fixedDelayString = "${catalog.price-index.merge-interval-ms:1000}")
+    public void merge() {
+        if (!mergeLock.tryLock()) {
+            return;
+        }
+        try {
+            Snapshot base = snapshot;
+            Map<Long, PendingPrice> batch = new HashMap<>(base.pending());
+            if (batch.isEmpty()) {
+                return;
+            }
+            long[] changedIds = batch.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+
+            Set<String> touched = new HashSet<>();
+            Map<String, List<Long>> addedByCategory = new HashMap<>();
+            List<Long> added = new ArrayList<>();
+            for (long productId : changedIds) {
+                PendingPrice change = batch.get(productId);
+                String previousCategory = mergedCategories.remove(productId);
+                if (previousCategory != null) {
+                    touched.add(previousCategory);
+                }
+                if (!change.removed()) {
+                    added.add(productId);
+                    if (change.category() != null) {
+                        mergedCategories.put(productId, change.category());
+                        touched.add(change.category());
+                        addedByCategory.computeIfAbsent(change.category(), c -> new ArrayList<>()).add(productId);
+                    }
+                }
+            }
+
+            PriceSegment all = base.all().merge(changedIds, segmentOf(added, batch));
+            Map<String, PriceSegment> byCategory = new HashMap<>(base.byCategory());
+            for (String category : touched) {
+                PriceSegment merged = byCategory.getOrDefault(category, PriceSegment.EMPTY)
+                        .merge(changedIds, segmentOf(addedByCategory.getOrDefault(category, List.of()), batch));
+                if (merged.size() == 0) {
+                    byCategory.remove(category);
+                } else {
+                    byCategory.put(category, merged);
+                }
+            }
+
+            synchronized (this) {
+                ConcurrentHashMap<Long, PendingPrice> remaining = new ConcurrentHashMap<>();
+                for (Map.Entry<Long, PendingPrice> entry : snapshot.pending().entrySet()) {
+                    if (!entry.getValue().equals(batch.get(entry.getKey()))) {
+                        remaining.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                snapshot = new Snapshot(all, Map.copyOf(byCategory), remaining);
+            }
+        } finally {
+            mergeLock.unlock();
+        }
+    }
+
+// 3. **rebuild Method**:
+//    - Loads every priced product from the database once the application is up.
+//    - Pending changes are kept on top of the loaded segments; they are never older than the rows read.
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Long> ids = new ArrayList<>();
+        List<String> categories = new ArrayList<>();
+        List<Double> prices = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, category, price FROM product WHERE price IS NOT NULL",
+                rs -> {
+                    ids.add(rs.getLong("id"));
+                    categories.add(rs.getString("category"));
+                    prices.add(rs.getDouble("price"));
+                });
+        replaceAll(ids.stream().mapToLong(Long::longValue).toArray(),
+                categories.toArray(new String[0]),
+                prices.stream().mapToDouble(Double::doubleValue).toArray());
+        log.info("Price index loaded with {} products", ids.size());
+    }
+
+    void replaceAll(long[] productIds, String[] categories, double[] prices) {
+        mergeLock.lock();
+        try {
+            Map<String, List<Integer>> rowsByCategory = new HashMap<>();
+            mergedCategories.clear();
+            for (int row = 0; row < productIds.length; row++) {
+                if (categories[row] != null) {
+                    mergedCategories.put(productIds[row], categories[row]);
+                    rowsByCategory.computeIfAbsent(categories[row], c -> new ArrayList<>()).add(row);
+                }
+            }
+            Map<String, PriceSegment> byCategory = new HashMap<>();
+            for (Map.Entry<String, List<Integer>> entry : rowsByCategory.entrySet()) {
+                List<Integer> rows = entry.getValue();
+                double[] categoryPrices = new double[rows.size()];
+                long[] categoryIds = new long[rows.size()];
+                for (int k = 0; k < rows.size(); k++) {
+                    categoryPrices[k] = prices[rows.get(k)];
+                    categoryIds[k] = productIds[rows.get(k)];
+                }
+                byCategory.put(entry.getKey(), PriceSegment.of(categoryPrices, categoryIds));
+            }
+            PriceSegment all = PriceSegment.of(prices, productIds);
+            synchronized (this) {
+                snapshot = new Snapshot(all, Map.copyOf(byCategory), snapshot.pending());
+            }
+            loaded = true;
+        } finally {
+            mergeLock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            mergeLock.lock();
+            try {
+                if (!loaded) {
+                    rebuild();
+                }
+            } finally {
+                mergeLock.unlock();
+            }
+        }
+    }
+
+    private static PriceSegment segmentOf(List<Long> productIds, Map<Long, PendingPrice> batch) {
+        double[] prices = new double[productIds.size()];
+        long[] ids = new long[productIds.size()];
+        for (int k = 0; k < ids.length; k++) {
+            ids[k] = productIds.get(k);
+            prices[k] = batch.get(ids[k]).price();
+        }
+        return PriceSegment.of(prices, ids);
+    }
+
+    private record Snapshot(PriceSegment all, Map<String, PriceSegment> byCategory, Map<Long, PendingPrice> pending) {
+    }
+
+    // The latest unmerged state of one product; removed products and products without a price are not indexed.
+    private record PendingPrice(String category, double price, boolean removed) {
+
+        static final PendingPrice REMOVED = new PendingPrice(null, 0, true);
+    }
+
+    // A pending change copied out of the live map for one read.
+    private record Overlay(long productId, double price) {
+    }
+}
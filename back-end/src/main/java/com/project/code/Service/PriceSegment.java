@@ -0,0 +1,93 @@
+package com.project.code.Service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+// Immutable run of products sorted by (price, id): prices and product ids in parallel primitive arrays.
+final class PriceSegment {
+
+    static final PriceSegment EMPTY = new PriceSegment(new double[0], new long[0]);
+
+    private final double[] prices;
+    private final long[] productIds;
+
+    private PriceSegment(double[] prices, long[] productIds) {
+        this.prices = prices;
+        this.productIds = productIds;
+    }
+
+    // Sorts the given entries; the arrays are not retained.
+    static PriceSegment of(double[] prices, long[] productIds) {
+        int[] order = IntStream.range(0, prices.length).boxed()
+                .sorted(Comparator.<Integer>comparingDouble(i -> prices[i]).thenComparingLong(i -> productIds[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        double[] sortedPrices = new double[order.length];
+        long[] sortedIds = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedPrices[i] = prices[order[i]];
+            sortedIds[i] = productIds[order[i]];
+        }
+        return new PriceSegment(sortedPrices, sortedIds);
+    }
+
+    int size() {
+        return prices.length;
+    }
+
+    double price(int index) {
+        return prices[index];
+    }
+
+    long productId(int index) {
+        return productIds[index];
+    }
+
+    // Index of the first entry priced at or above min.
+    int lowerBound(double min) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] < min) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+// 1. **merge Method**:
+//    - Returns a new segment without the products in `removedIds` (sorted) and with the `added` segment merged in.
+//    - One linear pass over both segments; this segment is left untouched for readers still using it.
+
+    PriceSegment merge(long[] removedIds, PriceSegment added) {
+        double[] mergedPrices = new double[prices.length + added.prices.length];
+        long[] mergedIds = new long[mergedPrices.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < prices.length || j < added.prices.length) {
+            boolean takeOwn = j == added.prices.length
+                    || (i < prices.length && compare(prices[i], productIds[i], added.prices[j], added.productIds[j]) <= 0);
+            if (takeOwn) {
+                if (Arrays.binarySearch(removedIds, productIds[i]) < 0) {
+                    mergedPrices[n] = prices[i];
+                    mergedIds[n++] = productIds[i];
+                }
+                i++;
+            } else {
+                mergedPrices[n] = added.prices[j];
+                mergedIds[n++] = added.productIds[j++];
+            }
+        }
+        return n == 0 ? EMPTY : new PriceSegment(Arrays.copyOf(mergedPrices, n), Arrays.copyOf(mergedIds, n));
+    }
+
+    static int compare(double priceA, long idA, double priceB, long idB) {
+        int byPrice = Double.compare(priceA, priceB);
+        return byPrice != 0 ? byPrice : Long.compare(idA, idB);
+    }
+}
@@ -0,0 +1,111 @@
+package com.project.code.Service;
+
+import com.project.code.model.ProductChangeEvent;
+import com.project.code.repo.InventoryRepository;
+import com.project.code.repo.OrderItemRepository;
+import com.project.code.repo.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class ProductDeletionService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Products per transaction; keeps each transaction's row locks short-lived when a whole line is delisted.
+    @Value("${catalog.deletion.chunk-size:500}")
+    private int chunkSize;
+
+// 1. **deleteProducts Method**:
+//    - Deletes the given products and their inventory rows with set-based statements, one chunk per transaction.
+//    - Ids are sorted first, so concurrent deletions lock rows in the same order.
+//    - Unknown ids are skipped. Products that appear in an order are kept and returned in `notDeleted`: the order
+//      tables are partitioned and carry no foreign keys, so nothing in the database would stop their deletion.
+//    - Chunks commit independently, so a failing chunk does not undo the ones before it: it is retried
+//      product by product, and the products that still fail are returned in `notDeleted` as well.
+//    - Reviews are removed afterwards by `ReviewCleanupService`, from the published deletion events.
+
+    public Result deleteProducts(Collection<Long> productIds) {
+        List<Long> ids = productIds.stream().distinct().sorted().toList();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int deleted = 0;
+        List<Long> notDeleted = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+            try {
+                deleted += execute(transaction, chunk, notDeleted);
+            } catch (DataIntegrityViolationException e) {
+                for (Long productId : chunk) {
+                    try {
+                        deleted += execute(transaction, List.of(productId), notDeleted);
+                    } catch (DataIntegrityViolationException referenced) {
+                        notDeleted.add(productId);
+                    }
+                }
+            }
+        }
+        return new Result(deleted, notDeleted);
+    }
+
+    // Ordered products are added to `notDeleted` only once their chunk has committed.
+    private int execute(TransactionTemplate transaction, List<Long> chunk, List<Long> notDeleted) {
+        List<Long> ordered = new ArrayList<>();
+        Integer count = transaction.execute(status -> deleteChunk(chunk, ordered));
+        notDeleted.addAll(ordered);
+        return count == null ? 0 : count;
+    }
+
+    private int deleteChunk(List<Long> chunk, List<Long> ordered) {
+        List<Long> existing = productRepository.findExistingIds(chunk);
+        if (existing.isEmpty()) {
+            return 0;
+        }
+        // Placing an order updates the product's inventory rows, so once they are locked no new order item
+        // for these products can commit before this chunk does.
+        inventoryRepository.lockByProductIdIn(existing);
+        Set<Long> inOrders = new HashSet<>(orderItemRepository.findOrderedProductIds(existing));
+        List<Long> deletable = existing;
+        if (!inOrders.isEmpty()) {
+            deletable = existing.stream().filter(id -> !inOrders.contains(id)).toList();
+            ordered.addAll(existing.stream().filter(inOrders::contains).toList());
+            if (deletable.isEmpty()) {
+                return 0;
+            }
+        }
+        inventoryRepository.deleteByProductIdIn(deletable);
+        productRepository.deleteByIdIn(deletable);
+        // Delivered to listeners only after this chunk commits.
+        for (Long productId : deletable) {
+            eventPublisher.publishEvent(ProductChangeEvent.deleted(productId));
+        }
+        return deletable.size();
+    }
+
+    // deleted: products removed; notDeleted: existing products left in place because orders still reference them.
+    public record Result(int deleted, List<Long> notDeleted) {
+    }
+}
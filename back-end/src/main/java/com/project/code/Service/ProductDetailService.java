@@ -0,0 +1,220 @@
+package com.project.code.Service;
+
+import com.project.code.model.Customer;
+import com.project.code.model.ProductView;
+import com.project.code.model.ProductPageView;
+import com.project.code.model.ReviewSummary;
+import com.project.code.model.ReviewView;
+import com.project.code.repo.CustomerRepository;
+import com.project.code.repo.InventoryRepository;
+import com.project.code.repo.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Builds the product page from MySQL and MongoDB in parallel. Every source has its own timeout, counted
+// from the start of the page; a source that is slow, failing or finds the pool full is left out of the
+// page instead of delaying or failing it.
+@Service
+public class ProductDetailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductDetailService.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private StockMatrix stockMatrix;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Value("${product.detail.threads:32}")
+    private int threads;
+
+    @Value("${product.detail.timeout-ms.product:300}")
+    private long productTimeoutMillis;
+
+    @Value("${product.detail.timeout-ms.stock:200}")
+    private long stockTimeoutMillis;
+
+    @Value("${product.detail.timeout-ms.reviews:500}")
+    private long reviewsTimeoutMillis;
+
+    @Value("${product.detail.review-page-size:10}")
+    private int reviewPageSize;
+
+    private ThreadPoolExecutor fanOut;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger count = new AtomicInteger();
+        // When the pool and its queue are full a lookup is rejected and its source reported missing; running it
+        // on the request thread instead would take it out from under its timeout.
+        fanOut = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "product-detail-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        fanOut.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void stop() {
+        fanOut.shutdownNow();
+    }
+
+// 1. **productPage Method**:
+//    - Starts the product, stock level, review summary and first review page lookups at once.
+//    - `storeId` may be null: the stock level is then omitted and reviews cover every store.
+//    - Returns empty when the product does not exist; slow or failed sources are listed in `missing`.
+
+    public Optional<ProductPageView> productPage(long productId, Long storeId) {
+        long start = System.nanoTime();
+        CompletableFuture<Optional<ProductView>> product = submit(
+                () -> singleFlight.execute("product-detail", productId, () -> productRepository.findViewById(productId)));
+        CompletableFuture<Integer> stock = storeId == null
+                ? CompletableFuture.completedFuture(null)
+                : submit(() -> stockLevel(storeId, productId));
+        CompletableFuture<ReviewSummary> summary = submit(() -> reviewSummary(productId, storeId));
+        CompletableFuture<List<ReviewView>> reviews = submit(() -> firstReviews(productId, storeId));
+
+        // Each timeout is a deadline from `start`, not from when its turn to be awaited comes, so the page
+        // takes at most the longest timeout however the sources are ordered.
+        List<String> missing = new ArrayList<>();
+        Optional<ProductView> detail = await("product", product, start, productTimeoutMillis, missing);
+        if (detail != null && detail.isEmpty()) {
+            stock.cancel(false);
+            summary.cancel(false);
+            reviews.cancel(false);
+            return Optional.empty();
+        }
+        Integer stockLevel = await("stockLevel", stock, start, stockTimeoutMillis, missing);
+        ReviewSummary reviewSummary = await("reviewSummary", summary, start, reviewsTimeoutMillis, missing);
+        List<ReviewView> reviewPage = await("reviews", reviews, start, reviewsTimeoutMillis, missing);
+        return Optional.of(new ProductPageView(detail == null ? null : detail.get(), stockLevel, reviewSummary,
+                reviewPage, List.copyOf(missing)));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> lookup) {
+        try {
+            return CompletableFuture.supplyAsync(lookup, fanOut);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> T await(String source, CompletableFuture<T> future, long start, long timeoutMillis, List<String> missing) {
+        try {
+            long remainingNanos = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) - System.nanoTime();
+            return future.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            log.debug("Product page source {} timed out after {} ms", source, timeoutMillis);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                log.debug("Product page source {} skipped: lookup pool is full", source);
+            } else {
+                log.warn("Product page source {} failed", source, e.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        missing.add(source);
+        return null;
+    }
+
+    private Integer stockLevel(long storeId, long productId) {
+        int level = stockMatrix.stockLevel(storeId, productId);
+        if (level == StockMatrix.UNKNOWN) {
+            var inventory = inventoryRepository.findByProduct_IdAndStore_Id(productId, storeId);
+            return inventory == null ? null : inventory.getStockLevel();
+        }
+        return level == StockMatrix.NOT_STOCKED ? null : level;
+    }
+
+    private ReviewSummary reviewSummary(long productId, Long storeId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(reviewCriteria(productId, storeId)),
+                Aggregation.group().count().as("count").avg("rating").as("averageRating"));
+        Document result = mongoTemplate.aggregate(aggregation, "reviews", Document.class).getUniqueMappedResult();
+        if (result == null) {
+            return new ReviewSummary(0, null);
+        }
+        Number count = result.get("count", Number.class);
+        Number average = result.get("averageRating", Number.class);
+        return new ReviewSummary(count == null ? 0 : count.longValue(), average == null ? null : average.doubleValue());
+    }
+
+    // Newest reviews first; customer names are resolved with one query for the whole page.
+    private List<ReviewView> firstReviews(long productId, Long storeId) {
+        Query query = new Query(reviewCriteria(productId, storeId))
+                .with(Sort.by(Sort.Direction.DESC, "_id"))
+                .limit(reviewPageSize);
+        query.fields().include("customerId", "rating", "comment");
+        List<Document> documents = mongoTemplate.find(query, Document.class, "reviews");
+
+        Set<Long> customerIds = documents.stream()
+                .map(document -> document.get("customerId", Number.class))
+                .filter(id -> id != null)
+                .map(Number::longValue)
+                .collect(Collectors.toSet());
+        Map<Long, String> names = new HashMap<>();
+        for (Customer customer : customerRepository.findAllById(customerIds)) {
+            names.put((long) customer.getId(), customer.getName());
+        }
+
+        List<ReviewView> views = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            Number customerId = document.get("customerId", Number.class);
+            String name = customerId == null ? null : names.get(customerId.longValue());
+            Number rating = document.get("rating", Number.class);
+            views.add(new ReviewView(name == null ? "Unknown" : name, rating == null ? null : rating.intValue(),
+                    document.getString("comment")));
+        }
+        return views;
+    }
+
+    private static Criteria reviewCriteria(long productId, Long storeId) {
+        Criteria criteria = Criteria.where("productId").is(productId);
+        return storeId == null ? criteria : criteria.and("storeId").is(storeId);
+    }
+}
@@ -0,0 +1,182 @@
+package com.project.code.Service;
+
+import com.project.code.model.RevenueRow;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Sums revenue, quantity and line counts over order segments with a fork-join scan.
+// Segments are cut into row ranges; each range is aggregated into its own table and tables are merged
+// on the way back up. Group keys are packed into one long (month | store | category), so nothing is boxed per row.
+final class RevenueAggregator {
+
+    private static final int CHUNK_ROWS = 1 << 16;
+
+    private static final long KEY_PRESENT = 1L << 62;
+    private static final int MONTH_SHIFT = 44;
+    private static final int STORE_SHIFT = 20;
+    private static final long STORE_MASK = (1L << 24) - 1;
+    private static final long CATEGORY_MASK = (1L << 20) - 1;
+
+    private final int fromDay;
+    private final int toDay;
+    private final long storeFilter;
+    private final boolean byMonth;
+    private final boolean byStore;
+    private final boolean byCategory;
+
+    // storeFilter < 0 means every store. Days are inclusive epoch days.
+    RevenueAggregator(LocalDate from, LocalDate to, long storeFilter, boolean byMonth, boolean byStore, boolean byCategory) {
+        this.fromDay = (int) from.toEpochDay();
+        this.toDay = (int) to.toEpochDay();
+        this.storeFilter = storeFilter;
+        this.byMonth = byMonth;
+        this.byStore = byStore;
+        this.byCategory = byCategory;
+    }
+
+    List<RevenueRow> aggregate(ForkJoinPool pool, List<OrderSegment> segments, String[] categoryNames) {
+        List<Chunk> chunks = new ArrayList<>();
+        for (OrderSegment segment : segments) {
+            if (segment.rows == 0 || segment.maxDay < fromDay || segment.minDay > toDay) {
+                continue;
+            }
+            for (int lo = 0; lo < segment.rows; lo += CHUNK_ROWS) {
+                chunks.add(new Chunk(segment, lo, Math.min(segment.rows, lo + CHUNK_ROWS)));
+            }
+        }
+        Totals totals = chunks.isEmpty() ? new Totals() : pool.invoke(new ScanTask(chunks, 0, chunks.size()));
+        return totals.rows(categoryNames);
+    }
+
+    private Totals scan(Chunk chunk) {
+        OrderSegment segment = chunk.segment;
+        boolean allDaysInRange = segment.minDay >= fromDay && segment.maxDay <= toDay;
+        int[] globalCategory = segment.globalCategory;
+        Totals totals = new Totals();
+        int cachedDay = Integer.MIN_VALUE;
+        long cachedMonth = 0;
+        for (int row = chunk.lo; row < chunk.hi; row++) {
+            int day = segment.epochDay.get(row);
+            if (!allDaysInRange && (day < fromDay || day > toDay)) {
+                continue;
+            }
+            int store = segment.storeId.get(row);
+            if (storeFilter >= 0 && store != storeFilter) {
+                continue;
+            }
+            long key = KEY_PRESENT;
+            if (byMonth) {
+                if (day != cachedDay) {
+                    YearMonth month = YearMonth.from(LocalDate.ofEpochDay(day));
+                    cachedMonth = month.getYear() * 12L + month.getMonthValue() - 1;
+                    cachedDay = day;
+                }
+                key |= cachedMonth << MONTH_SHIFT;
+            }
+            if (byStore) {
+                key |= (store & STORE_MASK) << STORE_SHIFT;
+            }
+            if (byCategory) {
+                int local = segment.category.get(row);
+                key |= local == OrderSegment.NO_CATEGORY ? 0 : (globalCategory[local] + 1L) & CATEGORY_MASK;
+            }
+            int quantity = segment.quantity.get(row);
+            totals.add(key, 1, quantity, quantity * segment.priceCents.get(row));
+        }
+        return totals;
+    }
+
+    private record Chunk(OrderSegment segment, int lo, int hi) {
+    }
+
+    private final class ScanTask extends RecursiveTask<Totals> {
+
+        private final List<Chunk> chunks;
+        private final int lo;
+        private final int hi;
+
+        ScanTask(List<Chunk> chunks, int lo, int hi) {
+            this.chunks = chunks;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (hi - lo == 1) {
+                return scan(chunks.get(lo));
+            }
+            int mid = (lo + hi) >>> 1;
+            ScanTask left = new ScanTask(chunks, lo, mid);
+            left.fork();
+            Totals right = new ScanTask(chunks, mid, hi).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    // Group key -> slot, with the sums of each slot in parallel arrays.
+    private final class Totals {
+
+        private final LongIntHashMap slots = new LongIntHashMap();
+        private long[] keys = new long[16];
+        private long[] lines = new long[16];
+        private long[] quantities = new long[16];
+        private long[] cents = new long[16];
+        private int size;
+
+        void add(long key, long lineCount, long quantity, long revenueCents) {
+            int slot = slots.get(key);
+            if (slot == LongIntHashMap.MISSING) {
+                slot = size++;
+                if (slot == keys.length) {
+                    keys = Arrays.copyOf(keys, slot * 2);
+                    lines = Arrays.copyOf(lines, slot * 2);
+                    quantities = Arrays.copyOf(quantities, slot * 2);
+                    cents = Arrays.copyOf(cents, slot * 2);
+                }
+                keys[slot] = key;
+                slots.putNew(key, slot);
+            }
+            lines[slot] += lineCount;
+            quantities[slot] += quantity;
+            cents[slot] += revenueCents;
+        }
+
+        Totals merge(Totals other) {
+            for (int slot = 0; slot < other.size; slot++) {
+                add(other.keys[slot], other.lines[slot], other.quantities[slot], other.cents[slot]);
+            }
+            return this;
+        }
+
+        List<RevenueRow> rows(String[] categoryNames) {
+            List<RevenueRow> rows = new ArrayList<>(size);
+            for (int slot = 0; slot < size; slot++) {
+                long key = keys[slot];
+                String month = null;
+                if (byMonth) {
+                    long index = (key & ~KEY_PRESENT) >>> MONTH_SHIFT;
+                    month = YearMonth.of((int) (index / 12), (int) (index % 12) + 1).toString();
+                }
+                Long store = byStore ? (key >>> STORE_SHIFT) & STORE_MASK : null;
+                String category = null;
+                if (byCategory) {
+                    int code = (int) (key & CATEGORY_MASK) - 1;
+                    category = code < 0 || code >= categoryNames.length ? "Uncategorized" : categoryNames[code];
+                }
+                rows.add(new RevenueRow(month, store, category, lines[slot], quantities[slot], cents[slot] / 100.0));
+            }
+            rows.sort(Comparator.comparing(RevenueRow::month, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(RevenueRow::storeId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(RevenueRow::category, Comparator.nullsFirst(Comparator.naturalOrder())));
+            return rows;
+        }
+    }
+}
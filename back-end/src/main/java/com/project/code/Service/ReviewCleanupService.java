@@ -0,0 +1,101 @@
+package com.project.code.Service;
+
+import com.mongodb.client.result.DeleteResult;
+import com.project.code.model.ProductChangeEvent;
+import com.project.code.repo.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Removes the reviews of deleted products from MongoDB in the background, many products per deleteMany,
+// so a product deletion never waits on the review store. The queue is in memory only; a periodic sweep
+// picks up the reviews it lost on a restart, and those of products deleted outside this application.
+@Service
+public class ReviewCleanupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewCleanupService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${reviews.cleanup.batch-size:500}")
+    private int batchSize;
+
+    private final ConcurrentLinkedQueue<Long> deletedProducts = new ConcurrentLinkedQueue<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (event.deleted()) {
+            deletedProducts.add(event.productId());
+        }
+    }
+
+// 1. **purge Method**:
+//    - Drains the queue of deleted products and removes their reviews with one `deleteMany` per batch.
+//    - A failed batch goes back on the queue and is retried on the next run.
+
+    @Scheduled(fixedDelayString = "${reviews.cleanup.interval-ms:5000}")
+    public void purge() {
+        long removed = 0;
+        int products = 0;
+        while (!deletedProducts.isEmpty()) {
+            List<Long> batch = new ArrayList<>(batchSize);
+            Long productId;
+            while (batch.size() < batchSize && (productId = deletedProducts.poll()) != null) {
+                batch.add(productId);
+            }
+            try {
+                DeleteResult result = mongoTemplate.remove(new Query(Criteria.where("productId").in(batch)), "reviews");
+                removed += result.getDeletedCount();
+                products += batch.size();
+            } catch (RuntimeException e) {
+                deletedProducts.addAll(batch);
+                log.warn("Review cleanup for {} products failed; will retry", batch.size(), e);
+                break;
+            }
+        }
+        if (products > 0) {
+            log.info("Removed {} reviews of {} deleted products", removed, products);
+        }
+    }
+
+// 2. **sweep Method**:
+//    - Finds the distinct products that have reviews, checks them against the product table a batch at a time,
+//      and queues those that no longer exist for the next `purge`.
+
+    @Scheduled(initialDelayString = "${reviews.cleanup.sweep-interval-ms:3600000}",
+            fixedDelayString = "${reviews.cleanup.sweep-interval-ms:3600000}")
+    public void sweep() {
+        List<Long> reviewed = mongoTemplate.findDistinct(new Query(), "productId", "reviews", Long.class);
+        int orphaned = 0;
+        for (int from = 0; from < reviewed.size(); from += batchSize) {
+            List<Long> batch = reviewed.subList(from, Math.min(reviewed.size(), from + batchSize));
+            Set<Long> existing = new HashSet<>(productRepository.findExistingIds(batch));
+            for (Long productId : batch) {
+                if (!existing.contains(productId)) {
+                    deletedProducts.add(productId);
+                    orphaned++;
+                }
+            }
+        }
+        if (orphaned > 0) {
+            log.info("Found reviews of {} products that no longer exist", orphaned);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.project.code.Service;
+
+import com.project.code.model.Customer;
+import com.project.code.model.Review;
+import com.project.code.model.StoreReviewView;
+import com.project.code.repo.CustomerRepository;
+import com.project.code.repo.ReactiveReviewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Streams reviews straight from a MongoDB cursor. Nothing is collected up front: the cursor is read
+// as the HTTP client consumes the response, and customer names are looked up once per batch of reviews.
+@Service
+public class ReviewStreamService {
+
+    @Autowired
+    private ReactiveReviewRepository reactiveReviewRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Value("${reviews.stream.enrich-batch-size:500}")
+    private int enrichBatchSize;
+
+// 1. **storeReviews Method**:
+//    - Returns every review of a store, or only those of `productId` when it is given.
+//    - Reviews are grouped into batches of `reviews.stream.enrich-batch-size`; each batch costs one customer query.
+//    - Batches are enriched one after another (the customer lookup is blocking JPA, run on the bounded elastic pool),
+//      so at most one batch is held in memory ahead of the client.
+
+    public Flux<StoreReviewView> storeReviews(long storeId, Long productId) {
+        Flux<Review> reviews = productId == null
+                ? reactiveReviewRepository.findByStoreId(storeId)
+                : reactiveReviewRepository.findByStoreIdAndProductId(storeId, productId);
+        return reviews
+                .buffer(enrichBatchSize)
+                .concatMap(batch -> Mono.fromCallable(() -> enrich(batch)).subscribeOn(Schedulers.boundedElastic()), 1)
+                .concatMapIterable(views -> views);
+    }
+
+    private List<StoreReviewView> enrich(List<Review> batch) {
+        Set<Long> customerIds = new HashSet<>();
+        for (Review review : batch) {
+            if (review.getCustomerId() != null) {
+                customerIds.add(review.getCustomerId());
+            }
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (Customer customer : customerRepository.findAllById(customerIds)) {
+            names.put((long) customer.getId(), customer.getName());
+        }
+
+        List<StoreReviewView> views = new ArrayList<>(batch.size());
+        for (Review review : batch) {
+            String name = review.getCustomerId() == null ? null : names.get(review.getCustomerId());
+            views.add(new StoreReviewView(review.getProductId(), name == null ? "Unknown" : name,
+                    review.getRating(), review.getComment()));
+        }
+        return views;
+    }
+}
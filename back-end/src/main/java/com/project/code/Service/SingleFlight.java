@@ -0,0 +1,121 @@
+package com.project.code.Service;
+
+import com.project.code.config.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Coalesces identical concurrent reads: the first caller for a key runs the load, callers arriving
+// while it is in flight wait for and share its result. Nothing is cached once the load returns,
+// so this only removes the duplicate work of a stampede on a cold key.
+// Callers whose reads are pinned to the primary by a recent write of their own only share with each other.
+@Service
+public class SingleFlight {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    // How long a follower waits for the leader before giving up with 503.
+    @Value("${singleflight.max-wait-ms:2000}")
+    private long maxWaitMillis;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, KeyspaceMetrics> metrics = new ConcurrentHashMap<>();
+
+// 1. **execute Method**:
+//    - Runs `loader` for `keyspace`/`key` unless an identical call is already in flight, in which case its result is shared.
+//    - A failure of the leading call is rethrown to every caller sharing it.
+//    - A caller that waited `singleflight.max-wait-ms` for a stuck leader fails with WaitTimeoutException (503)
+//      instead of loading itself: the leader is stuck on something every follower would get stuck on too.
+//    - Results are handed to several callers at once and must not be modified.
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String keyspace, Object key, Supplier<T> loader) {
+        KeyspaceMetrics keyspaceMetrics = metrics.computeIfAbsent(keyspace, KeyspaceMetrics::new);
+        String flightKey = keyspace + ':' + key + (routingDataSource.pinnedToPrimary() ? "@primary" : "");
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, call);
+
+        if (leader == null) {
+            keyspaceMetrics.leaders.increment();
+            keyspaceMetrics.inFlight.incrementAndGet();
+            try {
+                T value = loader.get();
+                call.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(flightKey, call);
+                keyspaceMetrics.inFlight.decrementAndGet();
+            }
+        }
+
+        keyspaceMetrics.shared.increment();
+        try {
+            return (T) leader.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // The leader is stuck; waiting longer would only queue more requests behind it, and loading here
+            // would send every follower after it at once.
+            keyspaceMetrics.timeouts.increment();
+            throw new WaitTimeoutException(flightKey, maxWaitMillis);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + flightKey, e);
+        }
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public static class WaitTimeoutException extends RuntimeException {
+
+        WaitTimeoutException(String flightKey, long waitedMillis) {
+            super("Gave up after " + waitedMillis + " ms waiting for the load of " + flightKey);
+        }
+    }
+
+    // Metrics are tagged by keyspace only; tagging individual keys would grow without bound.
+    private final class KeyspaceMetrics {
+
+        private final Counter leaders;
+        private final Counter shared;
+        private final Counter timeouts;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        KeyspaceMetrics(String keyspace) {
+            leaders = Counter.builder("singleflight.calls").tag("keyspace", keyspace).tag("role", "leader")
+                    .description("Loads actually executed").register(meterRegistry);
+            shared = Counter.builder("singleflight.calls").tag("keyspace", keyspace).tag("role", "shared")
+                    .description("Calls that joined a load already in flight").register(meterRegistry);
+            timeouts = Counter.builder("singleflight.wait.timeouts").tag("keyspace", keyspace)
+                    .description("Followers that gave up waiting for the leader").register(meterRegistry);
+            Gauge.builder("singleflight.inflight", inFlight, AtomicInteger::get).tag("keyspace", keyspace)
+                    .description("Loads currently in flight").register(meterRegistry);
+        }
+    }
+}
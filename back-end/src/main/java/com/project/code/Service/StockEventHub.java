@@ -0,0 +1,281 @@
+package com.project.code.Service;
+
+import com.project.code.model.ProductChangeEvent;
+import com.project.code.model.StockChangeEvent;
+import com.project.code.model.StockDelta;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+// Fans committed stock changes out to the Server-Sent Event subscribers of each store.
+// Every subscriber has its own bounded buffer keyed by product, so a slow client only ever
+// receives the latest level per product; if it falls too far behind it is told to resync.
+// Sends block, so each one runs on a thread of its own and one stalled client never delays another;
+// a client whose send takes longer than `inventory.events.send-timeout-ms` is dropped, and told to resync
+// when its EventSource reconnects.
+@Service
+public class StockEventHub {
+
+    @Value("${inventory.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${inventory.events.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    // Threads kept between bursts; more are started while sends are in flight, at most one per subscriber.
+    @Value("${inventory.events.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    @Value("${inventory.events.send-timeout-ms:10000}")
+    private long sendTimeoutMillis;
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private ExecutorService dispatcher;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger count = new AtomicInteger();
+        dispatcher = new ThreadPoolExecutor(dispatchThreads, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "stock-events-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+// 1. **subscribe Method**:
+//    - Opens a new event stream for a store.
+//    - Events: `stock` (JSON array of StockDelta), `resync` (re-fetch /inventory/{storeId}), and heartbeat comments.
+//    - Events carry ids, so a reconnecting EventSource sends `Last-Event-ID`; such a stream starts with a `resync`,
+//      since changes made while it was away were not kept.
+
+    public SseEmitter subscribe(long storeId, boolean reconnect) {
+        return subscribe(storeId, new SseEmitter(timeoutMillis), reconnect);
+    }
+
+    SseEmitter subscribe(long storeId, SseEmitter emitter, boolean reconnect) {
+        Subscriber subscriber = new Subscriber(storeId, emitter);
+        subscribers.compute(storeId, (id, set) -> {
+            Set<Subscriber> storeSubscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            storeSubscribers.add(subscriber);
+            return storeSubscribers;
+        });
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+        if (reconnect && subscriber.requestResync()) {
+            dispatcher.execute(subscriber::drain);
+        }
+        return subscriber.emitter;
+    }
+
+    public int subscriberCount(long storeId) {
+        Set<Subscriber> storeSubscribers = subscribers.get(storeId);
+        return storeSubscribers == null ? 0 : storeSubscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChange(StockChangeEvent event) {
+        Set<Subscriber> storeSubscribers = subscribers.get(event.storeId());
+        if (storeSubscribers == null) {
+            return;
+        }
+        StockDelta delta = new StockDelta(event.productId(), event.previousLevel(), event.newLevel());
+        for (Subscriber subscriber : storeSubscribers) {
+            if (subscriber.offer(delta)) {
+                dispatcher.execute(subscriber::drain);
+            }
+        }
+    }
+
+    // Deleting a product removes it from every store at once; clients simply reload.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (!event.deleted()) {
+            return;
+        }
+        forEachSubscriber(Subscriber::requestResync);
+    }
+
+    @Scheduled(fixedRateString = "${inventory.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        forEachSubscriber(Subscriber::requestHeartbeat);
+    }
+
+    // Drops clients stuck in a send; the blocked thread is interrupted and ends once the write gives up.
+    @Scheduled(fixedDelayString = "${inventory.events.send-check-ms:1000}")
+    public void evictStalled() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> storeSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : storeSubscribers) {
+                if (subscriber.stalledAt(now)) {
+                    subscriber.evict();
+                }
+            }
+        }
+    }
+
+    private void forEachSubscriber(Predicate<Subscriber> action) {
+        for (Set<Subscriber> storeSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : storeSubscribers) {
+                if (action.test(subscriber)) {
+                    dispatcher.execute(subscriber::drain);
+                }
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.storeId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Subscriber {
+
+        private final long storeId;
+        private final SseEmitter emitter;
+
+        // Guarded by this. At most one drain task is scheduled per subscriber at any time.
+        private final Map<Long, StockDelta> pending = new LinkedHashMap<>();
+        private boolean resync;
+        private boolean heartbeatDue;
+        private boolean scheduled;
+
+        // Set while a send is in flight.
+        private volatile Thread sender;
+        private volatile long sendStartedNanos;
+        private long eventId;
+
+        private Subscriber(long storeId, SseEmitter emitter) {
+            this.storeId = storeId;
+            this.emitter = emitter;
+        }
+
+        // Returns true when the caller must schedule a drain.
+        synchronized boolean offer(StockDelta delta) {
+            StockDelta queued = pending.get(delta.productId());
+            if (queued != null) {
+                pending.put(delta.productId(), new StockDelta(delta.productId(), queued.previousLevel(), delta.stockLevel()));
+            } else {
+                if (pending.size() >= bufferSize) {
+                    pending.clear();
+                    resync = true;
+                }
+                pending.put(delta.productId(), delta);
+            }
+            return schedule();
+        }
+
+        synchronized boolean requestResync() {
+            pending.clear();
+            resync = true;
+            return schedule();
+        }
+
+        synchronized boolean requestHeartbeat() {
+            heartbeatDue = true;
+            return schedule();
+        }
+
+        private boolean schedule() {
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+
+        void drain() {
+            while (true) {
+                List<StockDelta> batch;
+                boolean sendResync;
+                boolean sendHeartbeat;
+                synchronized (this) {
+                    if (pending.isEmpty() && !resync && !heartbeatDue) {
+                        scheduled = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                    sendResync = resync;
+                    sendHeartbeat = heartbeatDue;
+                    resync = false;
+                    heartbeatDue = false;
+                }
+                try {
+                    if (sendResync) {
+                        send(SseEmitter.event().id(nextEventId()).name("resync").data(storeId));
+                    }
+                    if (!batch.isEmpty()) {
+                        send(SseEmitter.event().id(nextEventId()).name("stock").data(batch, MediaType.APPLICATION_JSON));
+                    } else if (sendHeartbeat && !sendResync) {
+                        send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away; stop delivering and leave the drain flag set so nothing is rescheduled.
+                    remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendStartedNanos = System.nanoTime();
+            sender = Thread.currentThread();
+            try {
+                emitter.send(event);
+            } finally {
+                sender = null;
+            }
+        }
+
+        private String nextEventId() {
+            return Long.toString(++eventId);
+        }
+
+        boolean stalledAt(long now) {
+            return sender != null && now - sendStartedNanos > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        }
+
+        // The drain flag stays set, so nothing more is scheduled for an evicted client.
+        void evict() {
+            remove(this);
+            Thread blocked = sender;
+            if (blocked != null) {
+                blocked.interrupt();
+            }
+            // Completing waits for the stuck send to let go of the emitter, so it must not hold up the caller.
+            dispatcher.execute(() -> emitter.completeWithError(
+                    new IOException("Client did not accept an event within " + sendTimeoutMillis + " ms")));
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.project.code.Service;
+
+import com.project.code.model.ProductChangeEvent;
+import com.project.code.model.StockChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Stock level of every product in every store, as one int[] row per store indexed by a compact product ordinal.
+// 4 bytes per cell: 1,000 stores x 20,000 products is about 85 MB with headroom. Rows are sized up front from the
+// number of products stocked, and a product that does not fit only grows the row of the store it is stocked in.
+// A reload rebuilds the rows one store at a time, so it never holds a second matrix next to the live one.
+// Reads are two hash probes and an array read, with no allocation and no database access; committed stock changes
+// are written straight into the cell. Changes this instance never sees (other instances, the dataset generator,
+// plain SQL) are picked up by the periodic reload and by callers correcting a cell from the primary; a "no" from
+// the matrix is therefore only a hint.
+@Service
+public class StockMatrix {
+
+    private static final Logger log = LoggerFactory.getLogger(StockMatrix.class);
+
+    public static final int NOT_STOCKED = -1;
+
+    // Returned until the matrix has been loaded; callers then fall back to the database.
+    public static final int UNKNOWN = -2;
+
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle ROWS = MethodHandles.arrayElementVarHandle(int[][].class);
+
+    // How many of the latest changes are remembered to check corrections against.
+    private static final int RECENT_CHANGES = 4096;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Writers hold this; readers only follow volatile references.
+    private final Object writeLock = new Object();
+
+    private volatile Matrix matrix = new Matrix(new LongIntHashMap(), new LongIntHashMap(), new long[0], new int[0][]);
+
+    // Guarded by writeLock: length of new rows, the number of products stocked plus headroom.
+    private int rowLength = 1024;
+
+    // Guarded by writeLock: changes committed while a load is reading, replayed onto each store's reloaded row.
+    private List<Object> journal;
+
+    private volatile boolean loaded;
+
+    // Written under writeLock. Every change applied takes the next number; recentCells holds the cell
+    // (as a hash of store and product) of the latest RECENT_CHANGES of them, indexed by number.
+    private volatile long sequence;
+    private final long[] recentCells = new long[RECENT_CHANGES];
+
+    // Guarded by writeLock: corrections read before either point are discarded.
+    private long loadStartedAt;
+    private long productCleared;
+
+// 1. **stockLevel Method**:
+//    - Returns the stock level of a product in a store, NOT_STOCKED if the store does not carry it,
+//      or UNKNOWN before the matrix has been loaded.
+
+    public int stockLevel(long storeId, long productId) {
+        if (!loaded) {
+            return UNKNOWN;
+        }
+        Matrix m = matrix;
+        int store = m.storeOrdinals.get(storeId);
+        int product = m.productOrdinals.get(productId);
+        // The ordinal maps are shared with newer matrices, so an ordinal may lie beyond this one's rows.
+        if (store == LongIntHashMap.MISSING || product == LongIntHashMap.MISSING || store >= m.rows.length) {
+            return NOT_STOCKED;
+        }
+        int[] row = (int[]) ROWS.getAcquire(m.rows, store);
+        return product < row.length ? (int) CELLS.getAcquire(row, product) : NOT_STOCKED;
+    }
+
+// 2. **isAvailable Method**:
+//    - Returns TRUE or FALSE when the matrix can answer, null when the caller must ask the database.
+
+    public Boolean isAvailable(long storeId, long productId, int quantity) {
+        int level = stockLevel(storeId, productId);
+        if (level == UNKNOWN) {
+            return null;
+        }
+        return level != NOT_STOCKED && level >= quantity;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChange(StockChangeEvent event) {
+        synchronized (writeLock) {
+            if (journal != null) {
+                journal.add(event);
+            }
+            recordChange(event.storeId(), event.productId());
+            set(event.storeId(), event.productId(), levelOf(event));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (!event.deleted()) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (journal != null) {
+                journal.add(event);
+            }
+            productCleared = recordChange(0, 0);
+            clearProduct(event.productId());
+        }
+    }
+
+// 2a. **sequence Method**:
+//    - Number of changes applied so far. Take it before reading the inventory row a correction is made from.
+
+    public long sequence() {
+        return sequence;
+    }
+
+// 2b. **correct Method**:
+//    - Overwrites one cell with a level read from the inventory row on the primary (null when the row does not exist).
+//    - `readStartedAt` is `sequence()` from before the read. The correction is dropped, and false returned, when the
+//      cell may have changed since: an event touched it, a product was deleted, a reload started or is running
+//      (it brings the row anyway), or too many changes happened to tell.
+
+    public boolean correct(long storeId, long productId, Integer level, long readStartedAt) {
+        StockChangeEvent correction = new StockChangeEvent(storeId, productId, null, level);
+        synchronized (writeLock) {
+            if (journal != null || !unchangedSince(storeId, productId, readStartedAt)) {
+                return false;
+            }
+            recordChange(storeId, productId);
+            set(storeId, productId, levelOf(correction));
+            return true;
+        }
+    }
+
+// 3. **load Method**:
+//    - Reads the inventory table once the application is up and publishes the matrix.
+//    - Runs again every `inventory.stock-matrix.reload-interval-ms`, replacing whatever drifted from the table.
+//    - Rows are read store by store and each store's row is swapped in as soon as it is complete.
+//      Stock changes committed during the read are journaled and replayed onto every row swapped in, so none is lost.
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${inventory.stock-matrix.reload-interval-ms:300000}",
+            fixedDelayString = "${inventory.stock-matrix.reload-interval-ms:300000}")
+    public void load() {
+        synchronized (writeLock) {
+            journal = new ArrayList<>();
+            loadStartedAt = recordChange(0, 0);
+        }
+        Long products = jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT product_id) FROM inventory", Long.class);
+        synchronized (writeLock) {
+            int count = products == null ? 0 : (int) Math.min(products, Integer.MAX_VALUE / 2);
+            rowLength = count + count / 16 + 64;
+        }
+
+        StoreRows storeRows = new StoreRows();
+        jdbcTemplate.query("SELECT store_id, product_id, stock_level FROM inventory ORDER BY store_id",
+                rs -> {
+                    storeRows.add(rs.getLong("store_id"), rs.getLong("product_id"), Math.max(rs.getInt("stock_level"), 0));
+                });
+        storeRows.flush();
+
+        long cells = 0;
+        synchronized (writeLock) {
+            // Stores without a single inventory row left are emptied the same way.
+            Matrix m = matrix;
+            for (long storeId : m.storeIds) {
+                if (storeRows.loaded.get(storeId) == LongIntHashMap.MISSING) {
+                    install(storeId, new long[0], new int[0], 0);
+                }
+            }
+            journal = null;
+            loaded = true;
+            for (int[] row : matrix.rows) {
+                cells += row.length;
+            }
+        }
+        Matrix m = matrix;
+        log.info("Stock matrix loaded: {} rows, {} stores x {} products ({} MB)", storeRows.count, m.rows.length,
+                m.productOrdinals.size(), cells * Integer.BYTES / (1024 * 1024));
+    }
+
+    private static int levelOf(StockChangeEvent event) {
+        return event.newLevel() == null ? NOT_STOCKED : Math.max(event.newLevel(), 0);
+    }
+
+    // Caller holds writeLock. Takes the next sequence number for a change to one cell; 0, 0 stands for no cell.
+    private long recordChange(long storeId, long productId) {
+        long next = sequence + 1;
+        recentCells[(int) (next % RECENT_CHANGES)] = cellKey(storeId, productId);
+        sequence = next;
+        return next;
+    }
+
+    // Caller holds writeLock. Hash collisions only ever drop a correction.
+    private boolean unchangedSince(long storeId, long productId, long readStartedAt) {
+        if (readStartedAt < loadStartedAt || readStartedAt < productCleared || sequence - readStartedAt >= RECENT_CHANGES) {
+            return false;
+        }
+        long cell = cellKey(storeId, productId);
+        for (long changed = readStartedAt + 1; changed <= sequence; changed++) {
+            if (recentCells[(int) (changed % RECENT_CHANGES)] == cell) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long cellKey(long storeId, long productId) {
+        return storeId * 0x9E3779B97F4A7C15L + productId;
+    }
+
+    // Caller holds writeLock. The ordinal stays assigned; the product's cells are cleared.
+    private void clearProduct(long productId) {
+        Matrix m = matrix;
+        int product = m.productOrdinals.get(productId);
+        if (product == LongIntHashMap.MISSING) {
+            return;
+        }
+        for (int store = 0; store < m.rows.length; store++) {
+            int[] row = (int[]) ROWS.getAcquire(m.rows, store);
+            if (product < row.length) {
+                CELLS.setRelease(row, product, NOT_STOCKED);
+            }
+        }
+    }
+
+    // Caller holds writeLock.
+    private void set(long storeId, long productId, int level) {
+        Matrix m = matrix;
+        Matrix updated = m.set(storeId, productId, level, rowLength);
+        if (updated != m) {
+            matrix = updated;
+        }
+    }
+
+    // Caller holds writeLock. Replaces a store's row with the loaded cells plus the journaled changes.
+    private void install(long storeId, long[] productIds, int[] levels, int n) {
+        Matrix m = matrix;
+        int[] ordinals = new int[n];
+        int maxOrdinal = -1;
+        for (int i = 0; i < n; i++) {
+            ordinals[i] = m.productOrdinal(productIds[i]);
+            maxOrdinal = Math.max(maxOrdinal, ordinals[i]);
+        }
+        int[] row = new int[Math.max(rowLength, maxOrdinal + 1)];
+        Arrays.fill(row, NOT_STOCKED);
+        for (int i = 0; i < n; i++) {
+            row[ordinals[i]] = levels[i];
+        }
+        for (Object event : journal) {
+            if (event instanceof StockChangeEvent stockChange && stockChange.storeId() == storeId) {
+                int level = levelOf(stockChange);
+                if (level != NOT_STOCKED || m.productOrdinals.get(stockChange.productId()) != LongIntHashMap.MISSING) {
+                    row = Matrix.put(row, m.productOrdinal(stockChange.productId()), level, rowLength);
+                }
+            } else if (event instanceof ProductChangeEvent productChange) {
+                int product = m.productOrdinals.get(productChange.productId());
+                if (product != LongIntHashMap.MISSING && product < row.length) {
+                    row[product] = NOT_STOCKED;
+                }
+            }
+        }
+        matrix = m.withRow(storeId, row);
+    }
+
+    // Collects the rows of one store at a time from a result ordered by store and installs each store when complete.
+    private final class StoreRows {
+
+        final LongIntHashMap loaded = new LongIntHashMap();
+        long count;
+
+        private long storeId;
+        private long[] productIds = new long[1024];
+        private int[] levels = new int[1024];
+        private int n;
+
+        void add(long storeId, long productId, int level) {
+            if (storeId != this.storeId) {
+                flush();
+                this.storeId = storeId;
+            }
+            if (n == productIds.length) {
+                productIds = Arrays.copyOf(productIds, n * 2);
+                levels = Arrays.copyOf(levels, n * 2);
+            }
+            productIds[n] = productId;
+            levels[n++] = level;
+            count++;
+        }
+
+        void flush() {
+            if (n == 0) {
+                return;
+            }
+            synchronized (writeLock) {
+                install(storeId, productIds, levels, n);
+            }
+            loaded.putNew(storeId, 0);
+            n = 0;
+        }
+    }
+
+    // Ordinal maps grow in place and are shared by successive matrices. A row is replaced in place when it is
+    // grown or reloaded; adding a store publishes a new Matrix with one more row. Single writer at a time.
+    private static final class Matrix {
+
+        private final LongIntHashMap storeOrdinals;
+        private final LongIntHashMap productOrdinals;
+        private final long[] storeIds;
+        private final int[][] rows;
+
+        Matrix(LongIntHashMap storeOrdinals, LongIntHashMap productOrdinals, long[] storeIds, int[][] rows) {
+            this.storeOrdinals = storeOrdinals;
+            this.productOrdinals = productOrdinals;
+            this.storeIds = storeIds;
+            this.rows = rows;
+        }
+
+        // Returns this matrix, or a new one when the store was not in it yet.
+        Matrix set(long storeId, long productId, int level, int rowLength) {
+            if (level == NOT_STOCKED && (storeOrdinals.get(storeId) == LongIntHashMap.MISSING
+                    || productOrdinals.get(productId) == LongIntHashMap.MISSING)) {
+                return this;
+            }
+            int product = productOrdinal(productId);
+            int store = storeOrdinals.get(storeId);
+            int[] row = store == LongIntHashMap.MISSING ? new int[0] : rows[store];
+            return withRow(storeId, put(row, product, level, rowLength));
+        }
+
+        int productOrdinal(long productId) {
+            int product = productOrdinals.get(productId);
+            if (product == LongIntHashMap.MISSING) {
+                product = productOrdinals.size();
+                productOrdinals.putNew(productId, product);
+            }
+            return product;
+        }
+
+        // Returns this matrix with the store's row replaced, or a new one with the row added.
+        Matrix withRow(long storeId, int[] row) {
+            int store = storeOrdinals.get(storeId);
+            if (store != LongIntHashMap.MISSING) {
+                if (rows[store] != row) {
+                    ROWS.setRelease(rows, store, row);
+                }
+                return this;
+            }
+            // Readers still on this matrix bounds-check the new ordinal against their own rows.
+            int[][] grown = Arrays.copyOf(rows, rows.length + 1);
+            long[] ids = Arrays.copyOf(storeIds, storeIds.length + 1);
+            grown[rows.length] = row;
+            ids[rows.length] = storeId;
+            storeOrdinals.putNew(storeId, rows.length);
+            return new Matrix(storeOrdinals, productOrdinals, ids, grown);
+        }
+
+        // Writes a cell, copying the row into a longer one first when the product does not fit.
+        static int[] put(int[] row, int product, int level, int rowLength) {
+            int[] target = row;
+            if (product >= row.length) {
+                target = Arrays.copyOf(row, Math.max(Math.max(rowLength, product + 1), row.length + row.length / 8));
+                Arrays.fill(target, row.length, target.length, NOT_STOCKED);
+            }
+            CELLS.setRelease(target, product, level);
+            return target;
+        }
+    }
+}
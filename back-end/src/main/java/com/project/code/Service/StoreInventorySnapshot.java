@@ -0,0 +1,44 @@
+package com.project.code.Service;
+
+import java.util.Arrays;
+
+// Immutable picture of one store's inventory listing at a given store ETag:
+// product ids sorted ascending with their stock levels in a parallel array, plus the
+// exact JSON body served by GET /inventory/{storeId}.
+public final class StoreInventorySnapshot {
+
+    private final String etag;
+    private final long[] productIds;
+    private final int[] stockLevels;
+    private final byte[] json;
+
+    StoreInventorySnapshot(String etag, long[] productIds, int[] stockLevels, byte[] json) {
+        this.etag = etag;
+        this.productIds = productIds;
+        this.stockLevels = stockLevels;
+        this.json = json;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    // Callers must not modify the returned array; it is shared by every reader.
+    public byte[] getJson() {
+        return json;
+    }
+
+    public int size() {
+        return productIds.length;
+    }
+
+    public boolean contains(long productId) {
+        return Arrays.binarySearch(productIds, productId) >= 0;
+    }
+
+    // Returns the stock level of a product in this store, or -1 if the store does not carry it.
+    public int stockLevel(long productId) {
+        int index = Arrays.binarySearch(productIds, productId);
+        return index >= 0 ? stockLevels[index] : -1;
+    }
+}
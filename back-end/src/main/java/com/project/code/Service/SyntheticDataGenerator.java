@@ -0,0 +1,403 @@
+package com.project.code.Service;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Fills MySQL and Mongo with a deterministic, production-shaped dataset.
+// Run with: java -jar code.jar --spring.profiles.active=datagen --datagen.scale=100 --datagen.seed=7
+// The same seed and scale always produce the same rows (ids are offset by the current max id of each table).
+@Component
+@Profile("datagen")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String[] CATEGORIES = {"Mobile", "TV and AV", "Home Appliances", "Laptops and Monitors", "Accessories"};
+    private static final double[] CATEGORY_BASE_PRICE = {700, 1200, 400, 1400, 200};
+    private static final String[] BRANDS = {"Nova", "Apex", "Zenith", "Orion", "Vertex", "Lumen", "Pulse", "Atlas"};
+    private static final String[] COMMENTS = {
+            "Great product! Worth every penny.",
+            "The quality exceeded my expectations.",
+            "Works as described.",
+            "Decent, but shipping took a while.",
+            "Not what I expected.",
+            "Stopped working after a month."
+    };
+    // Cumulative rating distribution for ratings 5, 4, 3, 2, 1.
+    private static final double[] RATING_CDF = {0.45, 0.75, 0.87, 0.93, 1.0};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${datagen.scale:1}")
+    private int scale;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    @Value("${datagen.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${datagen.years:3}")
+    private int years;
+
+    @Value("${datagen.end-date:2025-12-31}")
+    private String endDate;
+
+    @Value("${datagen.zipf-exponent:1.1}")
+    private double zipfExponent;
+
+    @Value("${datagen.reviews-per-product:4}")
+    private int reviewsPerProduct;
+
+    // Derived sizes and the popularity permutation shared by all phases.
+    private int productCount;
+    private int storeCount;
+    private int customerCount;
+    private int orderCount;
+    private int itemsPerStore;
+    private long productOffset;
+    private long storeOffset;
+    private long customerOffset;
+    private long orderOffset;
+    private int[] productByRank;
+    private double[] productPrice;
+    private int[][] stockedRanksByStore;
+
+// 1. **run Method**:
+//    - Validates the requested scale and generates every table in dependency order.
+//    - Scale 1 matches the seed data (50 products, 10 stores, 100 orders); sizes grow linearly except stores (sqrt).
+
+    @Override
+    public void run(String... args) {
+        if (scale < 1 || scale > 10_000) {
+            throw new IllegalArgumentException("datagen.scale must be between 1 and 10000");
+        }
+        int sqrtScale = (int) Math.ceil(Math.sqrt(scale));
+        productCount = 50 * scale;
+        storeCount = 10 * sqrtScale;
+        customerCount = 12 * scale;
+        orderCount = 100 * scale;
+        itemsPerStore = Math.min(productCount, 50 * sqrtScale);
+
+        productOffset = maxId("product");
+        storeOffset = maxId("store");
+        customerOffset = maxId("customers");
+        orderOffset = maxId("order_details");
+
+        long start = System.currentTimeMillis();
+        generateProducts(new SplittableRandom(seed * 31 + 1));
+        generateStores(new SplittableRandom(seed * 31 + 2));
+        generateCustomers(new SplittableRandom(seed * 31 + 3));
+        long inventoryRows = generateInventory(new SplittableRandom(seed * 31 + 4));
+        long orderItems = generateOrders(new SplittableRandom(seed * 31 + 5));
+        long reviews = generateReviews(new SplittableRandom(seed * 31 + 6));
+
+        log.info("Generated scale {}x (seed {}): {} products, {} stores, {} customers, {} inventory rows, {} orders, {} order items, {} reviews in {} ms",
+                scale, seed, productCount, storeCount, customerCount, inventoryRows, orderCount, orderItems, reviews,
+                System.currentTimeMillis() - start);
+    }
+
+// 2. **generateProducts Method**:
+//    - Assigns each product a popularity rank through a seeded permutation, so popularity is independent of id.
+//    - Prices are log-normal around a per-category base price.
+
+    private void generateProducts(SplittableRandom random) {
+        productByRank = new int[productCount];
+        for (int i = 0; i < productCount; i++) {
+            productByRank[i] = i;
+        }
+        shuffle(productByRank, random);
+
+        productPrice = new double[productCount];
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        for (int i = 0; i < productCount; i++) {
+            int category = Math.min(CATEGORIES.length - 1, (int) (Math.abs(random.nextGaussian()) * 1.6));
+            double price = CATEGORY_BASE_PRICE[category] * Math.exp(random.nextGaussian() * 0.5);
+            price = Math.max(5.0, Math.round(price * 100) / 100.0);
+            productPrice[i] = price;
+            long id = productOffset + i + 1;
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " " + CATEGORIES[category] + " " + id;
+            rows.add(new Object[]{id, name, CATEGORIES[category], price, String.format("GEN-%09d", id)});
+            flushIfFull("INSERT INTO product (id, name, category, price, sku) VALUES (?, ?, ?, ?, ?)", rows);
+        }
+        flush("INSERT INTO product (id, name, category, price, sku) VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    private void generateStores(SplittableRandom random) {
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        for (int i = 0; i < storeCount; i++) {
+            long id = storeOffset + i + 1;
+            String address = (100 + random.nextInt(9900)) + " Market Street, City " + (1 + random.nextInt(500));
+            rows.add(new Object[]{id, "Store " + id, address});
+            flushIfFull("INSERT INTO store (id, name, address) VALUES (?, ?, ?)", rows);
+        }
+        flush("INSERT INTO store (id, name, address) VALUES (?, ?, ?)", rows);
+    }
+
+    private void generateCustomers(SplittableRandom random) {
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        for (int i = 0; i < customerCount; i++) {
+            long id = customerOffset + i + 1;
+            String phone = String.format("%010d", random.nextLong(10_000_000_000L));
+            rows.add(new Object[]{id, "Customer " + id, "customer" + id + "@example.com", phone});
+            flushIfFull("INSERT INTO customers (id, name, email, phone) VALUES (?, ?, ?, ?)", rows);
+        }
+        flush("INSERT INTO customers (id, name, email, phone) VALUES (?, ?, ?, ?)", rows);
+    }
+
+// 3. **generateInventory Method**:
+//    - Every store carries the most popular quarter of its assortment plus a random long tail.
+//    - The tail is drawn with a partial Fisher-Yates shuffle over a reusable rank array, so no per-store allocation of size P.
+
+    private long generateInventory(SplittableRandom random) {
+        int head = Math.max(1, itemsPerStore / 4);
+        int[] scratch = new int[productCount];
+        for (int i = 0; i < productCount; i++) {
+            scratch[i] = i;
+        }
+        stockedRanksByStore = new int[storeCount][];
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        long total = 0;
+        for (int s = 0; s < storeCount; s++) {
+            int[] ranks = new int[itemsPerStore];
+            for (int i = 0; i < head; i++) {
+                ranks[i] = i;
+            }
+            // Positions below `head` are never swapped, so the tail cannot repeat a head rank.
+            for (int i = head; i < itemsPerStore; i++) {
+                int pick = i + random.nextInt(productCount - i);
+                int tmp = scratch[i];
+                scratch[i] = scratch[pick];
+                scratch[pick] = tmp;
+                ranks[i] = scratch[i];
+            }
+            Arrays.sort(ranks);
+            stockedRanksByStore[s] = ranks;
+
+            long storeId = storeOffset + s + 1;
+            for (int rank : ranks) {
+                int stock = random.nextDouble() < 0.05 ? 0 : random.nextInt(1, 201);
+                rows.add(new Object[]{productId(rank), storeId, stock});
+                flushIfFull("INSERT INTO inventory (product_id, store_id, stock_level) VALUES (?, ?, ?)", rows);
+                total++;
+            }
+        }
+        flush("INSERT INTO inventory (product_id, store_id, stock_level) VALUES (?, ?, ?)", rows);
+        return total;
+    }
+
+// 4. **generateOrders Method**:
+//    - Stores and customers are Zipf-skewed (busy stores, repeat customers).
+//    - Basket size is 1 + Poisson(1.4), products are Zipf-sampled from the store's popularity-ordered assortment.
+//    - Order dates span `datagen.years` years with a November/December and weekend uplift.
+
+    private long generateOrders(SplittableRandom random) {
+        ZipfSampler storeSampler = new ZipfSampler(storeCount, 0.8);
+        ZipfSampler customerSampler = new ZipfSampler(customerCount, 0.9);
+        ZipfSampler itemSampler = new ZipfSampler(itemsPerStore, zipfExponent);
+        LocalDate last = LocalDate.parse(endDate);
+        LocalDate first = last.minusYears(years);
+        int days = (int) (last.toEpochDay() - first.toEpochDay()) + 1;
+
+        List<Object[]> orderRows = new ArrayList<>(batchSize);
+        List<Object[]> itemRows = new ArrayList<>(batchSize);
+        int[] basket = new int[21];
+        long items = 0;
+        for (int o = 0; o < orderCount; o++) {
+            long orderId = orderOffset + o + 1;
+            int store = storeSampler.sample(random);
+            int[] stocked = stockedRanksByStore[store];
+            int basketSize = Math.min(basket.length - 1, 1 + poisson(random, 1.4));
+            int distinct = 0;
+            for (int attempt = 0; distinct < basketSize && attempt < basketSize * 4; attempt++) {
+                int rank = stocked[itemSampler.sample(random)];
+                if (!contains(basket, distinct, rank)) {
+                    basket[distinct++] = rank;
+                }
+            }
+
+            double total = 0;
+            int firstItem = itemRows.size();
+            for (int i = 0; i < distinct; i++) {
+                int quantity = quantity(random);
+                double price = productPrice[productByRank[basket[i]]];
+                total += price * quantity;
+                itemRows.add(new Object[]{orderId, productId(basket[i]), quantity, price, null});
+            }
+            items += distinct;
+
+            LocalDateTime date = orderDate(random, first, days);
+            // Items carry the order date too (partition key); set afterwards so the random sequence is unchanged.
+            Timestamp orderTimestamp = Timestamp.valueOf(date);
+            for (int i = firstItem; i < itemRows.size(); i++) {
+                itemRows.get(i)[4] = orderTimestamp;
+            }
+            long customerId = customerOffset + customerSampler.sample(random) + 1;
+            orderRows.add(new Object[]{orderId, customerId, storeOffset + store + 1, Math.round(total * 100) / 100.0, orderTimestamp});
+            // order_details must be written before the order_item batch that references it.
+            if (orderRows.size() >= batchSize) {
+                flush("INSERT INTO order_details (id, customer_id, store_id, total_price, date) VALUES (?, ?, ?, ?, ?)", orderRows);
+                flush("INSERT INTO order_item (order_id, product_id, quantity, price, order_date) VALUES (?, ?, ?, ?, ?)", itemRows);
+            }
+        }
+        flush("INSERT INTO order_details (id, customer_id, store_id, total_price, date) VALUES (?, ?, ?, ?, ?)", orderRows);
+        flush("INSERT INTO order_item (order_id, product_id, quantity, price, order_date) VALUES (?, ?, ?, ?, ?)", itemRows);
+        return items;
+    }
+
+// 5. **generateReviews Method**:
+//    - Review counts follow the product popularity curve: the top product gets the most reviews, the tail gets few or none.
+//    - Documents are written with unordered Mongo bulk inserts of `datagen.batch-size` documents.
+
+    private long generateReviews(SplittableRandom random) {
+        double harmonic = 0;
+        for (int rank = 1; rank <= productCount; rank++) {
+            harmonic += 1.0 / Math.pow(rank, zipfExponent);
+        }
+        double topCount = (double) reviewsPerProduct * productCount / harmonic;
+        ZipfSampler customerSampler = new ZipfSampler(customerCount, 0.9);
+
+        List<Document> batch = new ArrayList<>(batchSize);
+        long total = 0;
+        for (int rank = 0; rank < productCount; rank++) {
+            double expected = topCount / Math.pow(rank + 1, zipfExponent);
+            int count = (int) expected + (random.nextDouble() < expected - (int) expected ? 1 : 0);
+            for (int r = 0; r < count; r++) {
+                Document review = new Document()
+                        .append("customerId", customerOffset + customerSampler.sample(random) + 1)
+                        .append("productId", productId(rank))
+                        .append("storeId", storeOffset + random.nextInt(storeCount) + 1)
+                        .append("rating", rating(random))
+                        .append("comment", COMMENTS[random.nextInt(COMMENTS.length)]);
+                batch.add(review);
+                if (batch.size() >= batchSize) {
+                    insertReviews(batch);
+                }
+            }
+            total += count;
+        }
+        insertReviews(batch);
+        return total;
+    }
+
+    private void insertReviews(List<Document> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "reviews")
+                .insert(batch)
+                .execute();
+        batch.clear();
+    }
+
+    private void flushIfFull(String sql, List<Object[]> rows) {
+        if (rows.size() >= batchSize) {
+            flush(sql, rows);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, rows);
+        rows.clear();
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    private long productId(int rank) {
+        return productOffset + productByRank[rank] + 1;
+    }
+
+    private LocalDateTime orderDate(SplittableRandom random, LocalDate first, int days) {
+        while (true) {
+            LocalDate day = first.plusDays(random.nextInt(days));
+            double weight = 1.0;
+            if (day.getMonthValue() >= 11) {
+                weight += 0.6;
+            }
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                weight += 0.3;
+            }
+            if (random.nextDouble() * 1.9 < weight) {
+                return day.atTime(9 + random.nextInt(12), random.nextInt(60), random.nextInt(60));
+            }
+        }
+    }
+
+    private static int quantity(SplittableRandom random) {
+        double u = random.nextDouble();
+        if (u < 0.8) {
+            return 1;
+        }
+        if (u < 0.95) {
+            return 2;
+        }
+        return 3 + random.nextInt(3);
+    }
+
+    private static int rating(SplittableRandom random) {
+        double u = random.nextDouble();
+        for (int i = 0; i < RATING_CDF.length; i++) {
+            if (u < RATING_CDF[i]) {
+                return 5 - i;
+            }
+        }
+        return 1;
+    }
+
+    private static int poisson(SplittableRandom random, double lambda) {
+        double limit = Math.exp(-lambda);
+        double product = random.nextDouble();
+        int k = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            k++;
+        }
+        return k;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void shuffle(int[] values, SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+}
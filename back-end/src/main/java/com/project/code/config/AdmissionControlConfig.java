@@ -0,0 +1,27 @@
+package com.project.code.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlConfig {
+
+    // Also used by the batch dispatcher, which admits each sub-request through it.
+    @Bean
+    public LoadSheddingFilter loadSheddingFilter(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        return new LoadSheddingFilter(properties, meterRegistry);
+    }
+
+    // Runs first, so shed requests cost neither a read-your-writes lookup nor a trip through MVC.
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilterRegistration(LoadSheddingFilter loadSheddingFilter) {
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(loadSheddingFilter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,76 @@
+package com.project.code.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binds the `app.admission.*` properties: one adaptive concurrency limit per endpoint class.
+@ConfigurationProperties(prefix = "app.admission")
+public class AdmissionControlProperties {
+
+    // Seconds sent in Retry-After with a 503.
+    private int retryAfterSeconds = 1;
+
+    // Endpoint classes by name; requests matching none of them are never limited.
+    private Map<String, EndpointClass> classes = new LinkedHashMap<>();
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Map<String, EndpointClass> getClasses() {
+        return classes;
+    }
+
+    public void setClasses(Map<String, EndpointClass> classes) {
+        this.classes = classes;
+    }
+
+    public static class EndpointClass {
+
+        // "METHOD /ant/path/**" patterns; "* /path" matches any method.
+        private List<String> patterns = new ArrayList<>();
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+
+        public List<String> getPatterns() {
+            return patterns;
+        }
+
+        public void setPatterns(List<String> patterns) {
+            this.patterns = patterns;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+}
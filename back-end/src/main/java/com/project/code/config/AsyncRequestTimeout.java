@@ -0,0 +1,29 @@
+package com.project.code.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+// Lets a single handler give its async response (e.g. a StreamingResponseBody) a timeout of its own,
+// instead of raising spring.mvc.async.request-timeout for every async request in the application.
+// Runs just before concurrent handling starts, which is the last point the timeout can still be changed.
+public class AsyncRequestTimeout implements CallableProcessingInterceptor {
+
+    private static final String ATTRIBUTE = AsyncRequestTimeout.class.getName() + ".millis";
+
+    public static void set(HttpServletRequest request, long timeoutMillis) {
+        request.setAttribute(ATTRIBUTE, timeoutMillis);
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        if (request instanceof AsyncWebRequest asyncRequest
+                && request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Long timeoutMillis) {
+            asyncRequest.setTimeout(timeoutMillis);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.project.code.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.code.model.BatchRequestItem;
+import com.project.code.model.BatchResponseItem;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs the sub-requests of POST /api/batch through the DispatcherServlet in-process, so they reach the
+// same controllers, converters and exception handlers as separate HTTP calls would.
+// Consecutive reads (GET/HEAD) run concurrently; any other method is a barrier: it starts after every earlier
+// sub-request has finished, and later ones start after it, so a batch observes its own writes in order.
+// Sub-requests bypass the servlet filters except admission control: each is admitted against its own endpoint
+// class, so batching heavy calls does not get around their limit. The read-your-writes fence is carried from
+// the batch request into each sub-request and back out in the batch response's cookie.
+@Component
+public class BatchDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchDispatcher.class);
+
+    private static final Set<String> READS = Set.of("GET", "HEAD");
+    private static final Set<String> METHODS = Set.of("GET", "HEAD", "POST", "PUT", "DELETE", "PATCH");
+
+    @Autowired
+    private DispatcherServlet dispatcherServlet;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LoadSheddingFilter loadSheddingFilter;
+
+    @Value("${api.batch.threads:32}")
+    private int threads;
+
+    @Value("${api.batch.timeout-ms:30000}")
+    private long timeoutMillis;
+
+    private ThreadPoolExecutor workers;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger count = new AtomicInteger();
+        // When the pool and its queue are full the sub-request is rejected and the rest of the batch is not run;
+        // the batch thread must not run it itself, as it would take over the thread's read-your-writes fence.
+        workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "batch-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.shutdownNow();
+    }
+
+// 1. **validate Method**:
+//    - Returns an error message for a malformed sub-request, or null when it can be dispatched.
+
+    public String validate(BatchRequestItem item) {
+        if (item == null || item.method() == null || item.path() == null) {
+            return "Each request needs a method and a path";
+        }
+        if (!METHODS.contains(item.method().toUpperCase())) {
+            return "Unsupported method: " + item.method();
+        }
+        if (!item.path().startsWith("/") || item.path().startsWith("/api/batch")) {
+            return "Invalid path: " + item.path();
+        }
+        return null;
+    }
+
+// 2. **dispatch Method**:
+//    - Runs the sub-requests and returns their results in request order.
+//    - Nothing new starts once `api.batch.timeout-ms` has passed: the remaining sub-requests are reported as
+//      503 "Not executed", as is everything from a write whose earlier reads did not finish in time.
+//    - A write that has started is always waited for, however long it takes, and reported with its own result:
+//      later sub-requests must not overtake it. Reads still running at the deadline are reported as 504.
+
+    public List<BatchResponseItem> dispatch(List<BatchRequestItem> items, HttpServletRequest batchRequest,
+                                            HttpServletResponse batchResponse) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Long fence = ReadYourWritesFence.current();
+        AtomicLong lastWrite = new AtomicLong(fence == null ? 0 : fence);
+        Map<String, Cookie> cookies = new LinkedHashMap<>();
+
+        List<CompletableFuture<Captured>> running = new ArrayList<>(items.size());
+        int barrier = 0;
+        for (BatchRequestItem item : items) {
+            boolean read = READS.contains(item.method().toUpperCase());
+            if (!read && !awaitAll(running, barrier, deadline)) {
+                break;
+            }
+            if (deadline - System.nanoTime() <= 0) {
+                break;
+            }
+            CompletableFuture<Captured> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> execute(item, batchRequest, batchResponse, lastWrite), workers);
+            } catch (RejectedExecutionException e) {
+                log.warn("Batch workers are saturated; {} of {} sub-requests not executed", items.size() - running.size(), items.size());
+                break;
+            }
+            running.add(future);
+            if (!read) {
+                if (!awaitWrite(future)) {
+                    break;
+                }
+                barrier = running.size();
+            }
+        }
+
+        List<BatchResponseItem> results = new ArrayList<>(items.size());
+        for (CompletableFuture<Captured> future : running) {
+            Captured captured = await(future, deadline);
+            if (captured == null) {
+                results.add(new BatchResponseItem(HttpStatus.GATEWAY_TIMEOUT.value(), "Timed out"));
+                continue;
+            }
+            for (Cookie cookie : captured.cookies()) {
+                cookies.put(cookie.getName(), cookie);
+            }
+            results.add(captured.result());
+        }
+        while (results.size() < items.size()) {
+            results.add(new BatchResponseItem(HttpStatus.SERVICE_UNAVAILABLE.value(), "Not executed"));
+        }
+        cookies.values().forEach(batchResponse::addCookie);
+        return results;
+    }
+
+    // Whether every sub-request from `from` on finished before the deadline.
+    private boolean awaitAll(List<CompletableFuture<Captured>> futures, int from, long deadline) {
+        for (int i = from; i < futures.size(); i++) {
+            if (await(futures.get(i), deadline) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Waits for a write without a deadline; false only when the batch thread is interrupted, which ends the batch.
+    private boolean awaitWrite(CompletableFuture<Captured> future) {
+        try {
+            future.get();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Captured await(CompletableFuture<Captured> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Runs on a worker: the thread gets the batch's current fence, and any write it commits moves the fence.
+    private Captured execute(BatchRequestItem item, HttpServletRequest batchRequest, HttpServletResponse batchResponse,
+                             AtomicLong lastWrite) {
+        byte[] body = null;
+        if (item.body() != null && !item.body().isNull()) {
+            try {
+                body = objectMapper.writeValueAsBytes(item.body());
+            } catch (JsonProcessingException e) {
+                return new Captured(new BatchResponseItem(HttpStatus.BAD_REQUEST.value(), "Unreadable body"), List.of());
+            }
+        }
+        BatchSubRequest request = new BatchSubRequest(batchRequest, item.method(), item.path(), body);
+        BatchSubResponse response = new BatchSubResponse(batchResponse);
+        long fence = lastWrite.get();
+        ReadYourWritesFence.open(fence == 0 ? null : fence);
+        try {
+            loadSheddingFilter.doFilter(request, response, dispatcherServlet::service);
+        } catch (Exception e) {
+            log.warn("Batched {} {} failed", item.method(), item.path(), e);
+            return new Captured(new BatchResponseItem(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage()), response.cookies());
+        } finally {
+            Long written = ReadYourWritesFence.current();
+            if (written != null) {
+                lastWrite.accumulateAndGet(written, Math::max);
+            }
+            ReadYourWritesFence.close();
+        }
+        return new Captured(new BatchResponseItem(response.getStatus(), body(response)), response.cookies());
+    }
+
+    // JSON bodies are embedded as JSON; anything else as text.
+    private Object body(BatchSubResponse response) {
+        byte[] bytes = response.body();
+        if (bytes.length == 0) {
+            return null;
+        }
+        String contentType = response.getContentType();
+        if (contentType != null) {
+            try {
+                MediaType mediaType = MediaType.parseMediaType(contentType);
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON) || mediaType.getSubtype().endsWith("+json")) {
+                    return objectMapper.readTree(bytes);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Fall through and return the raw text.
+            }
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Captured(BatchResponseItem result, List<Cookie> cookies) {
+    }
+}
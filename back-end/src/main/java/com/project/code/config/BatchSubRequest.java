@@ -0,0 +1,292 @@
+package com.project.code.config;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// One sub-request of a batch, presented to the DispatcherServlet as a request of its own.
+// Method, path, query, body and attributes belong to the sub-request; headers other than the content
+// headers (cookies, authorization, locale) and the session come from the enclosing batch request.
+// Sub-requests are synchronous: handlers that start async processing fail with 500.
+final class BatchSubRequest extends HttpServletRequestWrapper {
+
+    private static final Set<String> OWN_HEADERS = Set.of("content-type", "content-length", "accept");
+
+    private final String method;
+    private final String path;
+    private final String query;
+    private final byte[] body;
+    private final Map<String, String[]> parameters;
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    BatchSubRequest(HttpServletRequest batch, String method, String pathAndQuery, byte[] body) {
+        super(batch);
+        this.method = method.toUpperCase(Locale.ROOT);
+        int queryStart = pathAndQuery.indexOf('?');
+        this.path = queryStart < 0 ? pathAndQuery : pathAndQuery.substring(0, queryStart);
+        this.query = queryStart < 0 ? null : pathAndQuery.substring(queryStart + 1);
+        this.body = body;
+        this.parameters = parse(query);
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return getContextPath() + path;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer();
+        url.append(getScheme()).append("://").append(getServerName()).append(':').append(getServerPort()).append(getRequestURI());
+        return url;
+    }
+
+    @Override
+    public String getServletPath() {
+        return path;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return query;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values == null ? null : values[0];
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (OWN_HEADERS.contains(lower)) {
+            return ownHeader(lower);
+        }
+        return super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (OWN_HEADERS.contains(lower)) {
+            String value = ownHeader(lower);
+            return Collections.enumeration(value == null ? List.of() : List.of(value));
+        }
+        return super.getHeaders(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        List<String> names = new ArrayList<>();
+        for (Enumeration<String> batchNames = super.getHeaderNames(); batchNames.hasMoreElements(); ) {
+            String name = batchNames.nextElement();
+            if (!OWN_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                names.add(name);
+            }
+        }
+        for (String own : OWN_HEADERS) {
+            if (ownHeader(own) != null) {
+                names.add(own);
+            }
+        }
+        return Collections.enumeration(names);
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        return OWN_HEADERS.contains(name.toLowerCase(Locale.ROOT)) ? -1 : super.getDateHeader(name);
+    }
+
+    private String ownHeader(String lowerCaseName) {
+        return switch (lowerCaseName) {
+            case "content-type" -> body == null ? null : "application/json";
+            case "content-length" -> body == null ? null : Integer.toString(body.length);
+            default -> "application/json";
+        };
+    }
+
+    @Override
+    public String getContentType() {
+        return ownHeader("content-type");
+    }
+
+    @Override
+    public int getContentLength() {
+        return body == null ? -1 : body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return getContentLength();
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream in = new ByteArrayInputStream(body == null ? new byte[0] : body);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                return in.read(buffer, offset, length);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException("Batched requests are read synchronously");
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Batched requests cannot be processed asynchronously");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+        throw new IllegalStateException("Batched requests cannot be processed asynchronously");
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        throw new IllegalStateException("Batched requests cannot be processed asynchronously");
+    }
+
+    private static Map<String, String[]> parse(String query) {
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        if (query != null && !query.isEmpty()) {
+            for (String pair : query.split("&")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int eq = pair.indexOf('=');
+                String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+                String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                values.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+            }
+        }
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        values.forEach((name, list) -> parameters.put(name, list.toArray(new String[0])));
+        return parameters;
+    }
+}
@@ -0,0 +1,53 @@
+package com.project.code.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.stereotype.Controller;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+@Configuration
+public class FastStartConfig {
+
+    // With spring.main.lazy-initialization=true (prod profile) these beans are still created at startup:
+    // controllers, so the first request does not pay for building them, and every bean that has work of its own
+    // (a @Scheduled method, an ApplicationReadyEvent listener that loads an index, a @TransactionalEventListener
+    // that must see every commit), which would otherwise never run until something first injected it.
+    @Bean
+    static LazyInitializationExcludeFilter hotPathBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (beanType.isAnnotationPresent(RestController.class)
+                        || beanType.isAnnotationPresent(Controller.class)
+                        || hasOwnWork(beanType));
+    }
+
+    static boolean hasOwnWork(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(ClassUtils.getUserClass(beanType),
+                (MethodIntrospector.MetadataLookup<Boolean>) method -> isOwnWork(method) ? Boolean.TRUE : null).isEmpty();
+    }
+
+    private static boolean isOwnWork(Method method) {
+        if (AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                || AnnotatedElementUtils.hasAnnotation(method, Schedules.class)
+                || AnnotatedElementUtils.hasAnnotation(method, TransactionalEventListener.class)) {
+            return true;
+        }
+        EventListener listener = AnnotatedElementUtils.findMergedAnnotation(method, EventListener.class);
+        if (listener == null) {
+            return false;
+        }
+        Class<?>[] events = listener.classes().length > 0 ? listener.classes() : method.getParameterTypes();
+        return Arrays.stream(events).anyMatch(event -> event.isAssignableFrom(ApplicationReadyEvent.class));
+    }
+}
@@ -0,0 +1,74 @@
+package com.project.code.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Adaptive concurrency limit in the style of a gradient limiter: the limit follows the ratio of the
+// long-term to the recent request latency. While latency stays near its long-term level the limit
+// grows by roughly sqrt(limit) per sample; once queueing pushes recent latency up, the ratio drops
+// below one and the limit shrinks before the database saturates.
+public class GradientConcurrencyLimit {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+    private static final int LONG_WINDOW = 600;
+    private static final int SHORT_WINDOW = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Guarded by this, except limit which readers only need approximately.
+    private volatile double limit;
+    private double longRtt;
+    private double shortRtt;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    // Returns false when the request must be shed; otherwise the caller must call release exactly once.
+    public boolean tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > (int) limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    // Records the outcome of an admitted request. Dropped requests (timeouts, overload errors) back the limit off.
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (dropped) {
+                limit = Math.max(minLimit, limit * BACKOFF);
+                return;
+            }
+            double rtt = rttNanos;
+            shortRtt = shortRtt == 0 ? rtt : shortRtt + (rtt - shortRtt) / SHORT_WINDOW;
+            longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) / LONG_WINDOW;
+            // After a sustained latency drop, let the baseline follow quickly instead of over LONG_WINDOW samples.
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+            // Not enough traffic to tell whether a higher limit would help.
+            if (inFlightAtCompletion < limit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+            double proposed = limit * gradient + Math.sqrt(limit);
+            limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + proposed * SMOOTHING));
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,17 @@
+package com.project.code.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    // Replaces reflective getter/field access in (de)serializers with generated lambdas.
+    // Spring Boot registers every Module bean with the application ObjectMapper.
+    @Bean
+    Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
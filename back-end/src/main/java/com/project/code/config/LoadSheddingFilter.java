@@ -0,0 +1,144 @@
+package com.project.code.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Admits requests of each limited endpoint class up to its adaptive concurrency limit and answers the
+// rest immediately with 503 and Retry-After, so overload is shed before it reaches the connection pool.
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final List<EndpointClass> endpointClasses = new ArrayList<>();
+    private final int retryAfterSeconds;
+
+    public LoadSheddingFilter(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this.retryAfterSeconds = properties.getRetryAfterSeconds();
+        for (Map.Entry<String, AdmissionControlProperties.EndpointClass> entry : properties.getClasses().entrySet()) {
+            endpointClasses.add(new EndpointClass(entry.getKey(), entry.getValue(), meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!endpointClass.limit.tryAcquire()) {
+            endpointClass.rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Integer.toString(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Server is busy, please retry shortly\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                // Streaming responses hold their permit until the body has been written.
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        release(endpointClass, start, released, isDropped(response));
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        release(endpointClass, start, released, true);
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        release(endpointClass, start, released, true);
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                release(endpointClass, start, released, failed || isDropped(response));
+            }
+        }
+    }
+
+    private EndpointClass classify(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (EndpointClass endpointClass : endpointClasses) {
+            if (endpointClass.matches(method, path)) {
+                return endpointClass;
+            }
+        }
+        return null;
+    }
+
+    // Only overload answers count as drops; business errors say nothing about capacity.
+    private static boolean isDropped(HttpServletResponse response) {
+        return response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || response.getStatus() == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+
+    private static void release(EndpointClass endpointClass, long start, AtomicBoolean released, boolean dropped) {
+        if (released.compareAndSet(false, true)) {
+            endpointClass.limit.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private static final class EndpointClass {
+
+        private final List<String[]> patterns = new ArrayList<>();
+        private final GradientConcurrencyLimit limit;
+        private final Counter rejected;
+
+        EndpointClass(String name, AdmissionControlProperties.EndpointClass config, MeterRegistry meterRegistry) {
+            for (String pattern : config.getPatterns()) {
+                String[] parts = pattern.trim().split("\\s+", 2);
+                patterns.add(parts.length == 2 ? parts : new String[] {"*", parts[0]});
+            }
+            limit = new GradientConcurrencyLimit(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit());
+            rejected = Counter.builder("admission.rejected").tag("class", name)
+                    .description("Requests shed with 503").register(meterRegistry);
+            Gauge.builder("admission.limit", limit, GradientConcurrencyLimit::getLimit).tag("class", name)
+                    .description("Current adaptive concurrency limit").register(meterRegistry);
+            Gauge.builder("admission.inflight", limit, GradientConcurrencyLimit::getInFlight).tag("class", name)
+                    .description("Admitted requests in progress").register(meterRegistry);
+        }
+
+        boolean matches(String method, String path) {
+            for (String[] pattern : patterns) {
+                if ((pattern[0].equals("*") || pattern[0].equalsIgnoreCase(method)) && PATH_MATCHER.match(pattern[1], path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.project.code.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+// Remembers when the current client last committed a write, so that its reads
+// can be kept on the primary until the replicas have caught up.
+// The timestamp travels between requests in the `rw-fence` cookie.
+public final class ReadYourWritesFence {
+
+    static final String COOKIE_NAME = "rw-fence";
+
+    private static final ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+
+    private ReadYourWritesFence() {
+    }
+
+    static void open(Long lastWriteMillis) {
+        if (lastWriteMillis == null) {
+            LAST_WRITE.remove();
+        } else {
+            LAST_WRITE.set(lastWriteMillis);
+        }
+    }
+
+    static void close() {
+        LAST_WRITE.remove();
+    }
+
+    // The current thread's fence, or null; lets work handed to other threads carry it along.
+    static Long current() {
+        return LAST_WRITE.get();
+    }
+
+    // A fence in the future is never within the window: the cookie is client-controlled and must not be able
+    // to pin reads to the primary indefinitely.
+    static boolean isWithin(long windowMillis) {
+        Long lastWrite = LAST_WRITE.get();
+        if (lastWrite == null) {
+            return false;
+        }
+        long elapsed = System.currentTimeMillis() - lastWrite;
+        return elapsed >= 0 && elapsed < windowMillis;
+    }
+
+    // Called when a read-write transaction obtains its connection; the fence only moves once the transaction commits.
+    static void registerWriteOnCommit(long windowMillis) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(windowMillis);
+            }
+        });
+    }
+
+    static void recordWrite(long windowMillis) {
+        long now = System.currentTimeMillis();
+        LAST_WRITE.set(now);
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        HttpServletResponse response = attributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+        response.addCookie(cookie);
+    }
+}
@@ -0,0 +1,46 @@
+package com.project.code.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Restores the client's read-your-writes fence from its cookie for the duration of the request.
+// The cookie is client-controlled, so a timestamp in the future is ignored rather than trusted.
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ReadYourWritesFence.open(lastWrite(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesFence.close();
+        }
+    }
+
+    private static Long lastWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (ReadYourWritesFence.COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    long lastWrite = Long.parseLong(cookie.getValue());
+                    return lastWrite <= System.currentTimeMillis() ? lastWrite : null;
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.project.code.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Binds the `app.datasource.*` properties. The primary keeps using `spring.datasource.*`.
+@ConfigurationProperties(prefix = "app.datasource")
+public class ReplicaDataSourceProperties {
+
+    // Read replicas; when empty every query goes to the primary.
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Minimum time after a committed write during which the same client reads from the primary.
+    private long readYourWritesWindowMs = 1000;
+
+    // Replicas lagging more than this are taken out of rotation until they catch up.
+    private long maxReplicaLagMs = 5000;
+
+    // Query returning the replica lag in seconds (first row), e.g. "SHOW REPLICA STATUS". Blank disables lag checks.
+    private String lagQuery = "";
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public long getReadYourWritesWindowMs() {
+        return readYourWritesWindowMs;
+    }
+
+    public void setReadYourWritesWindowMs(long readYourWritesWindowMs) {
+        this.readYourWritesWindowMs = readYourWritesWindowMs;
+    }
+
+    public long getMaxReplicaLagMs() {
+        return maxReplicaLagMs;
+    }
+
+    public void setMaxReplicaLagMs(long maxReplicaLagMs) {
+        this.maxReplicaLagMs = maxReplicaLagMs;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.project.code.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Periodically measures replica lag with `app.datasource.lag-query` and feeds it back into the routing.
+@Component
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private ReplicaDataSourceProperties properties;
+
+    @Scheduled(fixedDelayString = "${app.datasource.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        String lagQuery = properties.getLagQuery();
+        if (lagQuery == null || lagQuery.isBlank() || routingDataSource.getReplicas().isEmpty()) {
+            return;
+        }
+        Set<String> lagging = new HashSet<>();
+        long maxHealthyLag = 0;
+        for (Map.Entry<String, DataSource> replica : routingDataSource.getReplicas().entrySet()) {
+            Long lagMillis;
+            try {
+                lagMillis = new JdbcTemplate(replica.getValue()).query(lagQuery, ReplicaLagMonitor::readLagMillis);
+            } catch (RuntimeException e) {
+                log.warn("Lag check failed for {}: {}", replica.getKey(), e.getMessage());
+                lagMillis = null;
+            }
+            // No value means replication is stopped or broken, so the replica cannot be trusted.
+            if (lagMillis == null || lagMillis > properties.getMaxReplicaLagMs()) {
+                lagging.add(replica.getKey());
+            } else {
+                maxHealthyLag = Math.max(maxHealthyLag, lagMillis);
+            }
+        }
+        routingDataSource.updateReplicaState(lagging, maxHealthyLag);
+    }
+
+    private static Long readLagMillis(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        int column = 1;
+        ResultSetMetaData metaData = rs.getMetaData();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String label = metaData.getColumnLabel(i);
+            if ("Seconds_Behind_Source".equalsIgnoreCase(label) || "Seconds_Behind_Master".equalsIgnoreCase(label)) {
+                column = i;
+                break;
+            }
+        }
+        double seconds = rs.getDouble(column);
+        return rs.wasNull() ? null : Math.round(seconds * 1000);
+    }
+}
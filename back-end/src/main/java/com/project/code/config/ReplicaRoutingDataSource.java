@@ -0,0 +1,93 @@
+package com.project.code.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends read-only transactions to a replica (round robin) and everything else to the primary.
+// Must be wrapped in a LazyConnectionDataSourceProxy so the connection is only fetched once the
+// transaction's read-only flag is known.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final long minReadYourWritesWindowMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile Set<String> laggingReplicas = Set.of();
+    private volatile long readYourWritesWindowMillis;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long readYourWritesWindowMillis) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.replicaKeys = List.copyOf(this.replicas.keySet());
+        this.minReadYourWritesWindowMillis = readYourWritesWindowMillis;
+        this.readYourWritesWindowMillis = readYourWritesWindowMillis;
+
+        Map<Object, Object> targets = new HashMap<>(this.replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWritesFence.registerWriteOnCommit(readYourWritesWindowMillis);
+            }
+            return PRIMARY;
+        }
+        if (pinnedToPrimary()) {
+            return PRIMARY;
+        }
+        Set<String> lagging = laggingReplicas;
+        for (int attempt = 0; attempt < replicaKeys.size(); attempt++) {
+            String key = replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+            if (!lagging.contains(key)) {
+                return key;
+            }
+        }
+        return PRIMARY;
+    }
+
+    // Whether a read-only transaction on this thread is kept on the primary: no replicas, or the caller's own
+    // write is within the read-your-writes window. Results shared between callers (single-flight) must not be
+    // shared across this boundary, or a caller could be handed a replica read older than its own write.
+    public boolean pinnedToPrimary() {
+        return replicaKeys.isEmpty() || ReadYourWritesFence.isWithin(readYourWritesWindowMillis);
+    }
+
+    // Called by the lag monitor: lagging replicas leave the rotation and the read-your-writes
+    // window grows to cover the slowest replica still serving reads.
+    void updateReplicaState(Set<String> lagging, long maxHealthyLagMillis) {
+        this.laggingReplicas = Set.copyOf(lagging);
+        this.readYourWritesWindowMillis = Math.max(minReadYourWritesWindowMillis, maxHealthyLagMillis);
+    }
+
+    Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    long getReadYourWritesWindowMillis() {
+        return readYourWritesWindowMillis;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.code.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// An order with its items as stored in the monthly archive files, one JSON object per line.
+// Carries every column of order_details and order_item so an archived month can be reloaded.
+public record ArchivedOrder(long id, Long customerId, Long storeId, Double totalPrice, LocalDateTime date, List<Item> items) {
+
+    public record Item(long id, Long productId, Integer quantity, Double price) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.code.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+// One sub-request of POST /api/batch: an HTTP method, a path with optional query string, and an optional JSON body.
+public record BatchRequestItem(String method, String path, JsonNode body) {
+}
@@ -0,0 +1,5 @@
+package com.project.code.model;
+
+// Result of one sub-request: its HTTP status and body (JSON as-is, other content as text, null when empty).
+public record BatchResponseItem(int status, Object body) {
+}
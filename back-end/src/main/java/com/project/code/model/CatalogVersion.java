@@ -0,0 +1,28 @@
+package com.project.code.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Shared version counters behind the catalog and store ETags, one row per scope ("catalog", "store:<id>").
+// Only mapped so that ddl-auto creates the table; CatalogVersionService reads and bumps it with plain SQL.
+@Entity
+@Table(name = "catalog_version")
+public class CatalogVersion {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private long version;
+
+    public String getName() {
+        return name;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -2,7 +2,7 @@ package com.project.code.model;
 
 
 @Entity
-@Table(name = "customers")
+@Table(name = "customers", uniqueConstraints = @UniqueConstraint(name = "uk_customers_email", columnNames = "email"))
 public class Customer {
 
 // 1. Add 'id' field: 
@@ -0,0 +1,7 @@
+package com.project.code.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Body of a failed order placement, keyed `Error` as the front end expects.
+public record ErrorResponse(@JsonProperty("Error") String error) {
+}
@@ -0,0 +1,9 @@
+package com.project.code.model;
+
+import java.util.List;
+import java.util.Map;
+
+// Facet information shown next to a product listing: how many products fall into each
+// category tab and how the selected category (or all products) spread over the price buckets.
+public record FacetCounts(int total, Map<String, Integer> categories, List<PriceBucket> priceBuckets) {
+}
@@ -3,6 +3,8 @@ package com.project.code.model;
 import javax.annotation.processing.Generated;
 
 @Entity
+@Table(name = "inventory", uniqueConstraints = @UniqueConstraint(name = "uk_inventory_product_store",
+        columnNames = {"product_id", "store_id"}))
 public class Inventory {
    // 1. Add 'id' field:
 //    - Type: private long 
@@ -39,6 +41,12 @@ public class Inventory {
 //    - This field will represent the current stock level of the product at the store.
     private Integer stockLevel;
 
+// 4a. Add 'reorderThreshold' field:
+//    - Type: private Integer
+//    - Stock level at or below which the product shows up on the store's low-stock watchlist.
+//    - Null means the default threshold (`inventory.low-stock.default-threshold`).
+    private Integer reorderThreshold;
+
 // 5. Add relationships:
 //    - **Product Relationship**: Use @ManyToOne to link this inventory entry to a product.
 //    - **Store Relationship**: Use @ManyToOne to link this inventory entry to a store.
@@ -100,5 +108,13 @@ public class Inventory {
         this.stockLevel = stockLevel;
     }
 
+    public Integer getReorderThreshold() {
+        return reorderThreshold;
+    }
+
+    public void setReorderThreshold(Integer reorderThreshold) {
+        this.reorderThreshold = reorderThreshold;
+    }
+
 }
 
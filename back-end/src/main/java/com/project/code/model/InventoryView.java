@@ -0,0 +1,5 @@
+package com.project.code.model;
+
+// Stock of one product in one store, without the product and store entities.
+public record InventoryView(long storeId, long productId, Integer stockLevel, Integer reorderThreshold) {
+}
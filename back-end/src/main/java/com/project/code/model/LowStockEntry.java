@@ -0,0 +1,10 @@
+package com.project.code.model;
+
+// A product at or below its reorder threshold in one store.
+public record LowStockEntry(long productId, int stockLevel, int reorderThreshold) {
+
+    // How far below the threshold the product is; the most negative entries come first.
+    public int margin() {
+        return stockLevel - reorderThreshold;
+    }
+}
@@ -0,0 +1,5 @@
+package com.project.code.model;
+
+// Body of the endpoints that answer with a single `message`.
+public record MessageResponse(String message) {
+}
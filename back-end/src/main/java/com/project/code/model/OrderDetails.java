@@ -16,23 +16,23 @@ public class OrderDetails {
 // 2. Add 'customer' field:
 //    - Type: private Customer
 //    - This field refers to the customer who placed the order.
-//    - Use @ManyToOne with @JoinColumn(name = "customer_id") to define the foreign key relationship.
+//    - Use @ManyToOne with @JoinColumn(name = "customer_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT)) to define the foreign key relationship.
 //    - Apply @JsonManagedReference to handle bidirectional relationships and JSON serialization.
 
     private Customer customer;
     @ManyToOne
-    @JoinColumn(name = "customer_id")
+    @JoinColumn(name = "customer_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonManagedReference("order-customer")
 
 // 3. Add 'store' field:
 //    - Type: private Store
 //    - This field refers to the store from where the order was placed.
-//    - Use @ManyToOne with @JoinColumn(name = "store_id") to define the foreign key relationship.
+//    - Use @ManyToOne with @JoinColumn(name = "store_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT)) to define the foreign key relationship.
 //    - Apply @JsonManagedReference to handle bidirectional relationships and JSON serialization.
 
     private Store store;
     @ManyToOne
-    @JoinColumn(name = "store_id")
+    @JoinColumn(name = "store_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonManagedReference("order-store")
 
 // 4. Add 'totalPrice' field:
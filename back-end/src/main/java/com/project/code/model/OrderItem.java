@@ -1,6 +1,10 @@
 package com.project.code.Model;
 
 @Entity
+@Table(name = "order_item", indexes = {
+        @Index(name = "idx_order_item_order", columnList = "order_id"),
+        @Index(name = "idx_order_item_product", columnList = "product_id")
+})
 public class OrderItem {
 
 // 1. Add 'id' field:
@@ -16,23 +20,23 @@ public class OrderItem {
 // 2. Add 'order' field:
 //    - Type: private OrderDetails
 //    - This field refers to the order this item belongs to.
-//    - Use @ManyToOne with @JoinColumn(name = "order_id") to define the foreign key relationship.
+//    - Use @ManyToOne with @JoinColumn(name = "order_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT)) to define the foreign key relationship.
 //    - Apply @JsonManagedReference to manage bidirectional relationships and JSON serialization.
 
     private OrderDetails order;
     @ManyToOne
-    @JoinColumn(name = "order_id")
+    @JoinColumn(name = "order_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonManagedReference("order-orderItem")
 
 // 3. Add 'product' field:
 //    - Type: private Product
 //    - This field refers to the product in the order.
-//    - Use @ManyToOne with @JoinColumn(name = "product_id") to define the foreign key relationship.
+//    - Use @ManyToOne with @JoinColumn(name = "product_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT)) to define the foreign key relationship.
 //    - Apply @JsonManagedReference to prevent circular references during JSON serialization.
 
     private Product product;
     @ManyToOne
-    @JoinColumn(name = "product_id")
+    @JoinColumn(name = "product_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonManagedReference("product-orderItem")
 
 // 4. Add 'quantity' field:
@@ -47,6 +51,14 @@ public class OrderItem {
 
     private Double price;
 
+// 5a. Add 'orderDate' field:
+//    - Type: private LocalDateTime
+//    - Copy of the order's date; order_item is range-partitioned by month on this column, like order_details.
+//    - Partitioned tables cannot carry foreign keys, so the join columns above declare none.
+
+    @Column(name = "order_date")
+    private LocalDateTime orderDate;
+
 // 6. Add constructors:
 //    - A no-argument constructor.
 //    - A parameterized constructor that accepts OrderDetails, Product, quantity, and price as parameters.
@@ -58,6 +70,7 @@ public class OrderItem {
         this.product = product;
         this.quantity = quantity;
         this.price = price;
+        this.orderDate = order == null ? null : order.getDate();
     }
 
 // 7. Add @Entity annotation:
@@ -93,7 +106,11 @@ public class OrderItem {
     public void setPrice(Double price) {
         this.price = price;
     }
-    
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+    public void setOrderDate(LocalDateTime orderDate) {
+        this.orderDate = orderDate;
+    }
 
 }
-
@@ -0,0 +1,5 @@
+package com.project.code.model;
+
+// Published when an order is saved, carrying its receipt as built from the entities already in hand.
+public record OrderPlacedEvent(OrderReceipt receipt) {
+}
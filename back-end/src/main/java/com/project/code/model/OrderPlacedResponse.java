@@ -0,0 +1,5 @@
+package com.project.code.model;
+
+// Body of a successful /store/placeOrder. The order id stays a JSON string, as it always has been.
+public record OrderPlacedResponse(String message, String orderId) {
+}
@@ -0,0 +1,24 @@
+package com.project.code.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Denormalized read model of one order: everything an order page or a receipt shows, keyed by order id,
+// so reading it is a single primary-key lookup instead of joins across five tables.
+@Document(collection = "order_receipts")
+public record OrderReceipt(@Id long orderId, LocalDateTime date, Double totalPrice,
+                           long storeId, String storeName, String storeAddress,
+                           long customerId, String customerName, String customerEmail,
+                           List<Line> items) {
+
+    public record Line(long productId, String productName, String sku, int quantity, Double unitPrice, double lineTotal) {
+
+        public static Line of(long productId, String productName, String sku, int quantity, Double unitPrice) {
+            double lineTotal = unitPrice == null ? 0 : Math.round(quantity * unitPrice * 100) / 100.0;
+            return new Line(productId, productName, sku, quantity, unitPrice, lineTotal);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.project.code.model;
+
+// One bar of a price histogram: products priced in [min, max); max is null for the open-ended top bucket.
+public record PriceBucket(double min, Double max, int count) {
+}
@@ -1,6 +1,10 @@
 package com.project.code.Model;
 
 @Entity
+@Table(name = "product", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_product_name", columnNames = "name"),
+        @UniqueConstraint(name = "uk_product_sku", columnNames = "sku")
+})
 public class Product {
 
 // 1. Add 'id' field:
@@ -38,7 +42,6 @@ public class Product {
 //    - This field cannot be empty, must be unique, use the @NotNull annotation to enforce this rule.
 //    - Use the @Table annotation with uniqueConstraints to ensure the 'sku' column is unique.
     @NotNull
-    @Table(name = "product", uniqueConstraints = @UniqueConstraint(columnNames="sku"))
     private String sku;
 //    Example: @Table(name = "product", uniqueConstraints = @UniqueConstraint(columnNames = "sku"))
 
@@ -0,0 +1,11 @@
+package com.project.code.model;
+
+import java.util.List;
+
+// Admin view of a product: detail fields plus its stock in every store.
+public record ProductAdminView(long id, String name, String category, Double price, String sku, List<InventoryView> inventory) {
+
+    public static ProductAdminView of(ProductView product, List<InventoryView> inventory) {
+        return new ProductAdminView(product.id(), product.name(), product.category(), product.price(), product.sku(), inventory);
+    }
+}
@@ -0,0 +1,14 @@
+package com.project.code.model;
+
+// Published after a product is added, updated or deleted.
+// category and price are the values after the change and are null for deletions.
+public record ProductChangeEvent(long productId, String category, Double price, boolean deleted) {
+
+    public static ProductChangeEvent saved(Product product) {
+        return new ProductChangeEvent(product.getId(), product.getCategory(), product.getPrice(), false);
+    }
+
+    public static ProductChangeEvent deleted(long productId) {
+        return new ProductChangeEvent(productId, null, null, true);
+    }
+}
@@ -0,0 +1,9 @@
+package com.project.code.model;
+
+import java.util.List;
+
+// Everything the product page needs in one response. Sources that did not answer in time are null
+// and listed in `missing`, so the page can render what it has and fetch the rest separately.
+public record ProductPageView(ProductView product, Integer stockLevel, ReviewSummary reviewSummary,
+                              List<ReviewView> reviews, List<String> missing) {
+}
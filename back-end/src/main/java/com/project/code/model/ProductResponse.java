@@ -0,0 +1,5 @@
+package com.project.code.model;
+
+// Body of GET /product/product/{id}; the key stays `products` for the existing front end.
+public record ProductResponse(ProductView products) {
+}
@@ -0,0 +1,11 @@
+package com.project.code.model;
+
+// View of a product: what the catalog tables, search results and edit forms render.
+// List and detail responses share it; both show exactly these columns, SKU included.
+public record ProductView(long id, String name, String category, Double price, String sku) {
+
+    public static ProductView from(Product product) {
+        return new ProductView(product.getId(), product.getName(), product.getCategory(), product.getPrice(),
+                product.returnSku());
+    }
+}
@@ -0,0 +1,5 @@
+package com.project.code.model;
+
+// One group of the revenue report. Dimensions that were not grouped by are null.
+public record RevenueRow(String month, Long storeId, String category, long lines, long quantity, double revenue) {
+}
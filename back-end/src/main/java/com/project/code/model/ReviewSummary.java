@@ -0,0 +1,5 @@
+package com.project.code.model;
+
+// Number of reviews and their average rating (null when there are none).
+public record ReviewSummary(long count, Double averageRating) {
+}
@@ -0,0 +1,5 @@
+package com.project.code.model;
+
+// One review as shown on the product page.
+public record ReviewView(String customerName, Integer rating, String comment) {
+}
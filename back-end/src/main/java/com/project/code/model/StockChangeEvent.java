@@ -0,0 +1,6 @@
+package com.project.code.model;
+
+// Published after a stock level of one product in one store changes.
+// previousLevel is null when the inventory row was just created, newLevel is null when it was removed.
+public record StockChangeEvent(long storeId, long productId, Integer previousLevel, Integer newLevel) {
+}
@@ -0,0 +1,6 @@
+package com.project.code.model;
+
+// One stock change as pushed to event stream subscribers.
+// previousLevel is the level the subscriber last saw; stockLevel is null when the product left the store.
+public record StockDelta(long productId, Integer previousLevel, Integer stockLevel) {
+}
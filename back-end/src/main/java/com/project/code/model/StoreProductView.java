@@ -0,0 +1,10 @@
+package com.project.code.model;
+
+// A product as listed in one store's inventory: product fields plus that store's stock level.
+public record StoreProductView(long id, String name, String category, Double price, String sku, Integer stockLevel) {
+
+    public static StoreProductView of(Product product, Integer stockLevel) {
+        return new StoreProductView(product.getId(), product.getName(), product.getCategory(), product.getPrice(),
+                product.returnSku(), stockLevel);
+    }
+}
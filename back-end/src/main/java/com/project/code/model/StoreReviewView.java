@@ -0,0 +1,5 @@
+package com.project.code.model;
+
+// One line of the review stream: a review with its product and the reviewer's name.
+public record StoreReviewView(Long productId, String customerName, Integer rating, String comment) {
+}
@@ -1,6 +1,9 @@
 package com.project.code.repo;
 
 import com.project.code.model.Customer;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
@@ -38,6 +41,19 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     public Customer findByName(String name);
 
+//    - **upsertByEmail** / **lastInsertId**:
+//      - Inserts the customer, or leaves the existing row with that email untouched, in one statement.
+//      - Either way LAST_INSERT_ID() on the same connection then holds the customer's id.
+//      - Relies on the unique index on `email`.
+
+    @Modifying
+    @Query(value = "INSERT INTO customers (name, email, phone) VALUES (:name, :email, :phone) " +
+                   "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id)", nativeQuery = true)
+    public int upsertByEmail(@Param("name") String name, @Param("email") String email, @Param("phone") String phone);
+
+    @Query(value = "SELECT LAST_INSERT_ID()", nativeQuery = true)
+    public long lastInsertId();
+
 // 4. Add @Repository annotation:
 //    - Mark the interface with @Repository to indicate that it's a Spring Data JPA repository.
 //    - This annotation is optional if you extend JpaRepository, as Spring Data automatically registers the repository, but it's good practice to add it for clarity.
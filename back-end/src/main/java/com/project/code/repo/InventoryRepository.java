@@ -1,8 +1,14 @@
 package com.project.code.repo;
 import com.project.code.model.Inventory;
+import com.project.code.model.InventoryView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,8 +37,26 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
       
 // Example: public List<Inventory> findByStore_Id(Long storeId);
 
+//    - **deleteByProductId** / **deleteByProductIdIn**:
+//      - Set-based deletes: one DELETE statement instead of loading and removing each inventory entity.
     @Modifying
     @Transactional
-    public void deleteByProductId(Long productId);
+    @Query("DELETE FROM Inventory i WHERE i.product.id = :productId")
+    public int deleteByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM Inventory i WHERE i.product.id IN :productIds")
+    public int deleteByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+//    - **lockByProductIdIn**:
+//      - Locks the inventory rows of these products; an order in flight for one of them holds its row, so this waits for it.
+    @Query(value = "SELECT id FROM inventory WHERE product_id IN (:productIds) FOR UPDATE", nativeQuery = true)
+    public List<Long> lockByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+//    - **findViewsByProductId**:
+//      - Stock of one product in every store, projected without loading entities.
+    @Query("SELECT new com.project.code.model.InventoryView(i.store.id, i.product.id, i.stockLevel, i.reorderThreshold) " +
+           "FROM Inventory i WHERE i.product.id = :productId")
+    public List<InventoryView> findViewsByProductId(@Param("productId") Long productId);
 
 }
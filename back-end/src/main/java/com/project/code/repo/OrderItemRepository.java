@@ -1,5 +1,12 @@
 package com.project.code.repo;
+import com.project.code.model.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
@@ -11,6 +18,12 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
 // 2. Since no custom methods are required for this repository, the default CRUD operations (save, delete, update, findById, etc.) are available out of the box.
 
+//    - **findOrderedProductIds**:
+//      - Which of these products appear in an order. order_item has no foreign key to product (partitioned tables
+//        cannot have one), so product deletion checks with this instead; a locking read, so it sees committed orders.
+    @Query(value = "SELECT DISTINCT product_id FROM order_item WHERE product_id IN (:productIds) FOR SHARE", nativeQuery = true)
+    public List<Long> findOrderedProductIds(@Param("productIds") Collection<Long> productIds);
+
 }
 
 
@@ -0,0 +1,11 @@
+package com.project.code.repo;
+
+import com.project.code.model.OrderReceipt;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderReceiptRepository extends MongoRepository<OrderReceipt, Long> {
+// 1. Add the repository interface:
+//    - Extend MongoRepository<OrderReceipt, Long>; receipts are only ever read by order id.
+}
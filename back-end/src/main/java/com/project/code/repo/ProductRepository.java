@@ -1,6 +1,15 @@
 package com.project.code.repo;
 
 import com.project.code.model.Product;
+import com.project.code.model.ProductView;
+import com.project.code.model.StoreProductView;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -61,5 +70,39 @@ public Product findByName(String name);
        "AND p.name LIKE CONCAT('%'', :pname, '%'')")
 List<Product> findByNameLike(@Param("storeId") Long storeId, @Param("pname") String pname);
 
+//    - **View projections**:
+//      - Select only the columns each response view needs, straight into records.
+//      - No entities are loaded, so no lazy association can be touched while serializing.
+
+@Query("SELECT new com.project.code.model.ProductView(p.id, p.name, p.category, p.price, p.sku) FROM Product p")
+List<ProductView> findAllViews();
+
+@Query("SELECT new com.project.code.model.ProductView(p.id, p.name, p.category, p.price, p.sku) " +
+       "FROM Product p WHERE p.id IN :ids")
+List<ProductView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+@Query("SELECT new com.project.code.model.ProductView(p.id, p.name, p.category, p.price, p.sku) " +
+       "FROM Product p WHERE p.id = :id")
+Optional<ProductView> findViewById(@Param("id") Long id);
+
+@Query("SELECT new com.project.code.model.ProductView(p.id, p.name, p.category, p.price, p.sku) " +
+       "FROM Inventory i JOIN i.product p " +
+       "WHERE i.store.id = :storeId AND p.category = :category")
+List<ProductView> findViewsByCategoryAndStoreId(@Param("category") String category, @Param("storeId") Long storeId);
+
+@Query("SELECT new com.project.code.model.StoreProductView(p.id, p.name, p.category, p.price, p.sku, i.stockLevel) " +
+       "FROM Inventory i JOIN i.product p " +
+       "WHERE i.store.id = :storeId")
+List<StoreProductView> findStoreProductViews(@Param("storeId") Long storeId);
+
+//    - **Bulk deletion**:
+//      - Existing ids of a batch, and one DELETE statement for the whole batch.
+
+@Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+@Modifying
+@Query("DELETE FROM Product p WHERE p.id IN :ids")
+int deleteByIdIn(@Param("ids") Collection<Long> ids);
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package com.project.code.repo;
+
+import com.project.code.model.Review;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveReviewRepository extends ReactiveMongoRepository<Review, String> {
+// 1. Add the repository interface:
+//    - Extend ReactiveMongoRepository<Review, String> for the streaming read paths.
+//    - Documents are pulled from the cursor only as fast as the subscriber requests them.
+
+// 2. Add custom query methods:
+//    - **findByStoreId** / **findByStoreIdAndProductId**:
+//      - Stream a store's reviews (optionally for one product) without loading them into a list.
+//      - Only the fields needed by the stream are fetched.
+
+    @Meta(cursorBatchSize = 1000)
+    @Query(value = "{ 'storeId': ?0 }", fields = "{ 'customerId': 1, 'productId': 1, 'storeId': 1, 'rating': 1, 'comment': 1 }")
+    Flux<Review> findByStoreId(Long storeId);
+
+    @Meta(cursorBatchSize = 1000)
+    @Query(value = "{ 'storeId': ?0, 'productId': ?1 }", fields = "{ 'customerId': 1, 'productId': 1, 'storeId': 1, 'rating': 1, 'comment': 1 }")
+    Flux<Review> findByStoreIdAndProductId(Long storeId, Long productId);
+}
@@ -0,0 +1,117 @@
+package com.project.code.Service;
+
+import com.project.code.model.OrderPlacedEvent;
+import com.project.code.model.OrderReceipt;
+import com.project.code.model.ProductChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+// Order history in an embedded H2 database: product 1 was bought with 2 four times and with 3 twice,
+// 2 with 3 once (and once more, too long ago to count). Partners need at least two orders together.
+// Updates run on the index's updater thread; `settle` waits until everything handed to it has been applied.
+class CoPurchaseIndexTest {
+
+    private CoPurchaseIndex index;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:co-purchase;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS order_item");
+        jdbcTemplate.execute("CREATE TABLE order_item (order_id BIGINT, product_id BIGINT, order_date TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO order_item VALUES " +
+                "(1, 1, CURRENT_TIMESTAMP), (1, 2, CURRENT_TIMESTAMP), (1, 3, CURRENT_TIMESTAMP), " +
+                "(2, 1, CURRENT_TIMESTAMP), (2, 2, CURRENT_TIMESTAMP), " +
+                "(3, 2, CURRENT_TIMESTAMP), (3, 1, CURRENT_TIMESTAMP), " +
+                "(4, 1, CURRENT_TIMESTAMP), (4, 3, CURRENT_TIMESTAMP), " +
+                "(6, 1, CURRENT_TIMESTAMP), (6, 2, CURRENT_TIMESTAMP), " +
+                "(5, 2, DATEADD('DAY', -400, CURRENT_TIMESTAMP)), (5, 3, DATEADD('DAY', -400, CURRENT_TIMESTAMP))");
+
+        index = new CoPurchaseIndex();
+        ReflectionTestUtils.setField(index, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(index, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(index, "topK", 20);
+        ReflectionTestUtils.setField(index, "minCount", 2);
+        ReflectionTestUtils.setField(index, "maxPairs", 1000);
+        ReflectionTestUtils.setField(index, "maxBasket", 50);
+        ReflectionTestUtils.setField(index, "historyDays", 365);
+        ReflectionTestUtils.setField(index, "fetchSize", 0);
+        ReflectionTestUtils.setField(index, "queueSize", 100);
+        index.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.stop();
+    }
+
+    @Test
+    void nothingIsRecommendedBeforeTheFirstRebuild() {
+        assertArrayEquals(new long[0], index.boughtTogether(1, 10));
+    }
+
+    @Test
+    void partnersAreRankedByRecentOrdersTogether() throws Exception {
+        index.rebuild();
+        settle();
+
+        assertArrayEquals(new long[] {2, 3}, index.boughtTogether(1, 10));
+        assertArrayEquals(new long[] {2}, index.boughtTogether(1, 1));
+        assertArrayEquals(new long[] {1}, index.boughtTogether(2, 10));
+        assertArrayEquals(new long[] {1}, index.boughtTogether(3, 10));
+    }
+
+    @Test
+    void committedOrdersMoveAPartnerUp() throws Exception {
+        index.rebuild();
+
+        index.onOrderPlaced(order(10, 3, 2, 3));
+        index.onOrderPlaced(order(11, 2, 3));
+        index.onOrderPlaced(order(12, 3, 2));
+        settle();
+
+        assertArrayEquals(new long[] {2, 1}, index.boughtTogether(3, 10));
+    }
+
+    @Test
+    void decayHalvesCountsAndDropsPairsSeenOnce() throws Exception {
+        index.rebuild();
+        ReflectionTestUtils.setField(index, "minCount", 1);
+
+        index.decay();
+        settle();
+
+        assertArrayEquals(new long[] {2, 3}, index.boughtTogether(1, 10));
+        assertArrayEquals(new long[] {1}, index.boughtTogether(2, 10));
+    }
+
+    @Test
+    void deletedProductHasNoPartners() throws Exception {
+        index.rebuild();
+
+        index.onProductChange(ProductChangeEvent.deleted(1));
+        settle();
+
+        assertArrayEquals(new long[0], index.boughtTogether(1, 10));
+    }
+
+    private void settle() throws Exception {
+        ((ThreadPoolExecutor) ReflectionTestUtils.getField(index, "updater")).submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static OrderPlacedEvent order(long orderId, long... productIds) {
+        return new OrderPlacedEvent(new OrderReceipt(orderId, null, null, 1, null, null, 1, null, null,
+                Arrays.stream(productIds).mapToObj(id -> OrderReceipt.Line.of(id, null, null, 1, 1.0)).toList()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.project.code.Service;
+
+import com.project.code.model.FacetCounts;
+import com.project.code.model.PriceBucket;
+import com.project.code.model.ProductChangeEvent;
+import com.project.code.model.StockChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+// Buckets [0, 100), [100, 500), [500, ∞); the facets are fed by events only, the database load is skipped.
+class FacetServiceTest {
+
+    private FacetService facets;
+
+    @BeforeEach
+    void setUp() {
+        facets = new FacetService();
+        ReflectionTestUtils.setField(facets, "bucketBounds", new double[] {500, 100});
+        ReflectionTestUtils.setField(facets, "loaded", true);
+        facets.init();
+
+        facets.onProductChange(new ProductChangeEvent(1, "Mobile", 50.0, false));
+        facets.onProductChange(new ProductChangeEvent(2, "Mobile", 100.0, false));
+        facets.onProductChange(new ProductChangeEvent(3, "TV", 900.0, false));
+        facets.onStockChange(new StockChangeEvent(7, 1, null, 5));
+        facets.onStockChange(new StockChangeEvent(7, 3, null, 1));
+    }
+
+    @Test
+    void catalogAndStoreCountsFollowEvents() {
+        assertEquals(new FacetCounts(3, Map.of("Mobile", 2, "TV", 1), buckets(1, 1, 1)), facets.catalogFacets(null));
+        assertEquals(new FacetCounts(3, Map.of("Mobile", 2, "TV", 1), buckets(1, 1, 0)), facets.catalogFacets("Mobile"));
+        assertEquals(new FacetCounts(2, Map.of("Mobile", 1, "TV", 1), buckets(0, 0, 1)), facets.storeFacets(7, "TV"));
+
+        facets.onProductChange(new ProductChangeEvent(1, "TV", 600.0, false));
+        facets.onStockChange(new StockChangeEvent(7, 3, 1, null));
+
+        assertEquals(new FacetCounts(1, Map.of("TV", 1), buckets(0, 0, 1)), facets.storeFacets(7, null));
+        assertEquals(new FacetCounts(3, Map.of("Mobile", 1, "TV", 2), buckets(0, 1, 2)), facets.catalogFacets(null));
+    }
+
+    @Test
+    void unknownStoreAndCategoryAreEmpty() {
+        assertEquals(new FacetCounts(0, Map.of(), buckets(0, 0, 0)), facets.storeFacets(99, null));
+        assertEquals(new FacetCounts(3, Map.of("Mobile", 2, "TV", 1), buckets(0, 0, 0)), facets.catalogFacets("Books"));
+    }
+
+    @Test
+    void readsShareThePublishedFacetsUntilTheNextChange() {
+        FacetCounts first = facets.catalogFacets(null);
+        assertSame(first, facets.catalogFacets(null));
+
+        facets.onProductChange(ProductChangeEvent.deleted(2));
+
+        FacetCounts next = facets.catalogFacets(null);
+        assertNotSame(first, next);
+        assertEquals(2, next.total());
+        assertEquals(3, first.total());
+    }
+
+    @Test
+    void concurrentReadsAndWritesEndConsistent() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    facets.onProductChange(new ProductChangeEvent(100 + i % 50, "Mobile", (double) (i % 700), false));
+                }
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int reader = 0; reader < 3; reader++) {
+                readers.add(pool.submit(() -> {
+                    while (!writer.isDone()) {
+                        FacetCounts counts = facets.catalogFacets(null);
+                        assertEquals(counts.total(), counts.priceBuckets().stream().mapToInt(PriceBucket::count).sum());
+                    }
+                }));
+            }
+            writer.get();
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(53, facets.catalogFacets(null).total());
+    }
+
+    private static List<PriceBucket> buckets(int below100, int below500, int above) {
+        return List.of(new PriceBucket(0, 100.0, below100), new PriceBucket(100, 500.0, below500), new PriceBucket(500, null, above));
+    }
+}
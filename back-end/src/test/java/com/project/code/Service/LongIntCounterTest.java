@@ -0,0 +1,53 @@
+package com.project.code.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongIntCounterTest {
+
+    @Test
+    void countsSurviveGrowth() {
+        LongIntCounter counter = new LongIntCounter(4);
+        for (long key = 1; key <= 10_000; key++) {
+            counter.add(key << 32 | key + 1, (int) (key % 7) + 1);
+        }
+        assertEquals(12, counter.add(5L << 32 | 6, 6));
+
+        assertEquals(10_000, counter.size());
+        assertEquals(4, counter.get(9999L << 32 | 10_000));
+        assertEquals(12, counter.get(5L << 32 | 6));
+        assertEquals(0, counter.get(6L << 32 | 5));
+    }
+
+    @Test
+    void halveDropsCountsOfOne() {
+        LongIntCounter counter = new LongIntCounter(16);
+        for (long key = 1; key <= 1000; key++) {
+            counter.add(key, (int) (key % 4));
+        }
+
+        counter.halve();
+
+        Map<Long, Integer> left = new HashMap<>();
+        counter.forEach(left::put);
+        assertEquals(500, counter.size());
+        assertEquals(500, left.size());
+        assertEquals(1, counter.get(2));
+        assertEquals(1, counter.get(3));
+        assertEquals(0, counter.get(1));
+        assertEquals(0, counter.get(4));
+    }
+
+    @Test
+    void rejectsKeysThatAreNotPositive() {
+        LongIntCounter counter = new LongIntCounter(16);
+
+        assertThrows(IllegalArgumentException.class, () -> counter.add(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> counter.add(-1, 1));
+    }
+}
@@ -0,0 +1,86 @@
+package com.project.code.Service;
+
+import com.project.code.model.LowStockEntry;
+import com.project.code.model.ProductChangeEvent;
+import com.project.code.model.StockChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Store 1 in an embedded H2 database with a default threshold of 10; product 3 has a custom threshold of 2.
+class LowStockIndexTest {
+
+    private LowStockIndex index;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:low-stock;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS inventory");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS store");
+        jdbcTemplate.execute("CREATE TABLE store (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE inventory (product_id BIGINT, store_id BIGINT, stock_level INT, reorder_threshold INT)");
+        jdbcTemplate.update("INSERT INTO store (id) VALUES (1)");
+        jdbcTemplate.update("INSERT INTO inventory VALUES (1, 1, 50, NULL), (2, 1, 4, NULL), (3, 1, 5, 2), (4, 1, 9, NULL), (5, 1, NULL, NULL)");
+
+        index = new LowStockIndex();
+        ReflectionTestUtils.setField(index, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(index, "defaultThreshold", 10);
+    }
+
+    @Test
+    void storeIsLoadedMostUrgentFirst() {
+        assertEquals(List.of(new LowStockEntry(2, 4, 10), new LowStockEntry(4, 9, 10)), index.lowStock(1, 10));
+        assertEquals(List.of(new LowStockEntry(2, 4, 10)), index.lowStock(1, 1));
+    }
+
+    @Test
+    void committedChangesMoveProductsInAndOut() {
+        index.lowStock(1, 10);
+
+        index.onStockChange(new StockChangeEvent(1, 1, 50, 0));
+        index.onStockChange(new StockChangeEvent(1, 4, 9, 30));
+        index.onStockChange(new StockChangeEvent(1, 3, 5, 2));
+        index.onProductChange(ProductChangeEvent.deleted(2));
+
+        assertEquals(List.of(new LowStockEntry(1, 0, 10), new LowStockEntry(3, 2, 2)), index.lowStock(1, 10));
+    }
+
+    @Test
+    void thresholdUpdateWithoutStockLevelDoesNotFail() {
+        index.lowStock(1, 10);
+
+        index.updateThreshold(1, 5, 20, null);
+        index.updateThreshold(1, 1, 60, 50);
+
+        assertEquals(List.of(new LowStockEntry(1, 50, 60), new LowStockEntry(2, 4, 10), new LowStockEntry(4, 9, 10)),
+                index.lowStock(1, 10));
+    }
+
+    @Test
+    void unknownStoresAreNotTracked() {
+        assertTrue(index.lowStock(99, 10).isEmpty());
+        assertFalse(index.tracks(99));
+
+        index.lowStock(1, 10);
+        assertTrue(index.tracks(1));
+    }
+
+    @Test
+    void reconcileRepairsDrift() {
+        index.lowStock(1, 10);
+        jdbcTemplate.update("UPDATE inventory SET stock_level = 1 WHERE product_id = 1");
+
+        index.reconcile();
+
+        assertEquals(new LowStockEntry(1, 1, 10), index.lowStock(1, 1).get(0));
+    }
+}
@@ -0,0 +1,82 @@
+package com.project.code.Service;
+
+import com.project.code.model.ProductChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+// Catalog of five products in two categories; pending changes are checked before and after they are merged.
+class PriceIndexTest {
+
+    private PriceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PriceIndex();
+        index.replaceAll(
+                new long[] {1, 2, 3, 4, 5},
+                new String[] {"fruit", "fruit", "dairy", "dairy", "fruit"},
+                new double[] {3.0, 1.5, 2.0, 9.0, 2.0});
+    }
+
+    @Test
+    void rangeIsReturnedCheapestFirst() {
+        assertArrayEquals(new long[] {2, 3, 5, 1}, index.productIds(1.0, 5.0, null, id -> true, 10));
+    }
+
+    @Test
+    void categoryAndFilterNarrowTheRange() {
+        assertArrayEquals(new long[] {2, 5, 1}, index.productIds(0, 100, "fruit", id -> true, 10));
+        assertArrayEquals(new long[] {5}, index.productIds(0, 100, "fruit", id -> id > 2, 1));
+    }
+
+    @Test
+    void pendingChangesAreVisibleBeforeAndAfterMerge() {
+        index.onProductChange(new ProductChangeEvent(1, "dairy", 1.0, false));
+        index.onProductChange(ProductChangeEvent.deleted(5));
+        index.onProductChange(new ProductChangeEvent(6, "fruit", 2.5, false));
+
+        assertArrayEquals(new long[] {1, 2, 3, 6}, index.productIds(0, 5, null, id -> true, 10));
+        assertArrayEquals(new long[] {2, 6}, index.productIds(0, 100, "fruit", id -> true, 10));
+
+        index.merge();
+
+        assertArrayEquals(new long[] {1, 2, 3, 6}, index.productIds(0, 5, null, id -> true, 10));
+        assertArrayEquals(new long[] {2, 6}, index.productIds(0, 100, "fruit", id -> true, 10));
+        assertArrayEquals(new long[] {1, 3, 4}, index.productIds(0, 100, "dairy", id -> true, 10));
+    }
+
+    @Test
+    void readsStayCompleteWhilePricesChange() throws Exception {
+        int products = 2_000;
+        index.replaceAll(
+                LongStream.rangeClosed(1, products).toArray(),
+                new String[products],
+                LongStream.rangeClosed(1, products).mapToDouble(id -> id % 100).toArray());
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (running.get()) {
+                index.onProductChange(new ProductChangeEvent(random.nextLong(1, products + 1), null, (double) random.nextInt(100), false));
+            }
+        });
+        writer.start();
+        try {
+            long[] all = LongStream.rangeClosed(1, products).toArray();
+            for (int read = 0; read < 500; read++) {
+                long[] ids = index.productIds(0, 100, null, id -> true, products * 2);
+                Arrays.sort(ids);
+                assertArrayEquals(all, ids);
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+}
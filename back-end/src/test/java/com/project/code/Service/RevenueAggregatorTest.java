@@ -0,0 +1,82 @@
+package com.project.code.Service;
+
+import com.project.code.model.RevenueRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Two days in January and one in February across two stores; segments round-trip through their byte layout.
+class RevenueAggregatorTest {
+
+    private static final LocalDate JAN_30 = LocalDate.of(2025, 1, 30);
+    private static final LocalDate JAN_31 = LocalDate.of(2025, 1, 31);
+    private static final LocalDate FEB_01 = LocalDate.of(2025, 2, 1);
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private List<OrderSegment> segments;
+    private String[] categories;
+
+    @BeforeEach
+    void setUp() {
+        OrderSegment.Builder jan30 = new OrderSegment.Builder();
+        jan30.add(1, 10, 2, 150, (int) JAN_30.toEpochDay(), "fruit");
+        jan30.add(2, 11, 1, 999, (int) JAN_30.toEpochDay(), "dairy");
+        OrderSegment.Builder jan31 = new OrderSegment.Builder();
+        jan31.add(1, 11, 3, 999, (int) JAN_31.toEpochDay(), "dairy");
+        jan31.add(1, 12, 1, 500, (int) JAN_31.toEpochDay(), null);
+        OrderSegment.Builder feb01 = new OrderSegment.Builder();
+        feb01.add(2, 10, 4, 150, (int) FEB_01.toEpochDay(), "fruit");
+
+        // Categories get different local codes per segment; the global codes are what reports group by.
+        segments = List.of(
+                withGlobalCodes(OrderSegment.of(jan30.toBuffer()), 0, 1),
+                withGlobalCodes(OrderSegment.of(jan31.toBuffer()), 1),
+                withGlobalCodes(OrderSegment.of(feb01.toBuffer()), 0));
+        categories = new String[] {"fruit", "dairy"};
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void revenueByMonth() {
+        List<RevenueRow> rows = new RevenueAggregator(JAN_30, FEB_01, -1, true, false, false)
+                .aggregate(pool, segments, categories);
+
+        assertEquals(List.of(
+                new RevenueRow("2025-01", null, null, 4, 7, 47.96),
+                new RevenueRow("2025-02", null, null, 1, 4, 6.0)), rows);
+    }
+
+    @Test
+    void storeFilterAndCategoryGrouping() {
+        List<RevenueRow> rows = new RevenueAggregator(JAN_30, JAN_31, 1, false, true, true)
+                .aggregate(pool, segments, categories);
+
+        assertEquals(List.of(
+                new RevenueRow(null, 1L, "Uncategorized", 1, 1, 5.0),
+                new RevenueRow(null, 1L, "dairy", 1, 3, 29.97),
+                new RevenueRow(null, 1L, "fruit", 1, 2, 3.0)), rows);
+    }
+
+    @Test
+    void daysOutsideTheRangeAreSkipped() {
+        List<RevenueRow> rows = new RevenueAggregator(JAN_31, JAN_31, -1, true, true, false)
+                .aggregate(pool, segments, categories);
+
+        assertEquals(List.of(new RevenueRow("2025-01", 1L, null, 2, 4, 34.97)), rows);
+    }
+
+    private static OrderSegment withGlobalCodes(OrderSegment segment, int... global) {
+        segment.globalCategory = global;
+        return segment;
+    }
+}
@@ -0,0 +1,148 @@
+package com.project.code.Service;
+
+import com.project.code.config.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A latch holds the leading load open until the followers have joined it.
+class SingleFlightTest {
+
+    private SingleFlight singleFlight;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight();
+        ReflectionTestUtils.setField(singleFlight, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(singleFlight, "routingDataSource",
+                new ReplicaRoutingDataSource(new DriverManagerDataSource(), Map.of(), 1000));
+        ReflectionTestUtils.setField(singleFlight, "maxWaitMillis", 2000L);
+        pool = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object value = new Object();
+
+        List<Future<Object>> calls = startCalls(8, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return value;
+        });
+        awaitShared(7);
+        release.countDown();
+
+        for (Future<Object> call : calls) {
+            assertSame(value, call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void leaderFailureReachesEveryFollower() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Object>> calls = startCalls(4, () -> {
+            await(release);
+            throw new IllegalStateException("database down");
+        });
+        awaitShared(3);
+        release.countDown();
+
+        for (Future<Object> call : calls) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+            assertEquals("database down", failure.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void followerFailsFastOnAStuckLeader() throws Exception {
+        ReflectionTestUtils.setField(singleFlight, "maxWaitMillis", 50L);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        Future<Object> leader = pool.submit(() -> singleFlight.execute("test", 1, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "leader";
+        }));
+        while (loads.get() == 0) {
+            Thread.sleep(1);
+        }
+
+        assertThrows(SingleFlight.WaitTimeoutException.class, () -> singleFlight.execute("test", 1, () -> {
+            loads.incrementAndGet();
+            return "follower";
+        }));
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.counter("singleflight.wait.timeouts", "keyspace", "test").count(), 0);
+        release.countDown();
+        assertEquals("leader", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void nothingIsCachedOnceTheLoadReturns() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("test", 1, loads::incrementAndGet);
+        singleFlight.execute("test", 1, loads::incrementAndGet);
+        singleFlight.execute("other", 1, loads::incrementAndGet);
+
+        assertEquals(3, loads.get());
+    }
+
+    private List<Future<Object>> startCalls(int count, Supplier<Object> loader) {
+        List<Future<Object>> calls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            calls.add(pool.submit(() -> singleFlight.execute("test", 1, loader)));
+        }
+        return calls;
+    }
+
+    // Followers are counted as they join, so this returns once all of them are waiting on the leader.
+    private void awaitShared(int followers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("singleflight.calls", "keyspace", "test", "role", "shared").count() < followers) {
+            assertTrue(System.nanoTime() < deadline, "followers did not join");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
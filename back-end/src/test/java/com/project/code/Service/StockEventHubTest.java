@@ -0,0 +1,197 @@
+package com.project.code.Service;
+
+import com.project.code.model.ProductChangeEvent;
+import com.project.code.model.StockChangeEvent;
+import com.project.code.model.StockDelta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Emitters record what would have been written to the client; a gate holds the first send open
+// to play a slow client while more changes arrive.
+class StockEventHubTest {
+
+    private StockEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new StockEventHub();
+        ReflectionTestUtils.setField(hub, "bufferSize", 2);
+        ReflectionTestUtils.setField(hub, "dispatchThreads", 2);
+        hub.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.stop();
+    }
+
+    @Test
+    void changesArrivingWhileClientIsBusyAreCoalescedPerProduct() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(true);
+        hub.subscribe(1, emitter, false);
+
+        hub.onStockChange(new StockChangeEvent(1, 10, 0, 5));
+        emitter.awaitFirstSend();
+        hub.onStockChange(new StockChangeEvent(1, 10, 5, 4));
+        hub.onStockChange(new StockChangeEvent(1, 10, 4, 3));
+        hub.onStockChange(new StockChangeEvent(1, 11, null, 7));
+        hub.onStockChange(new StockChangeEvent(2, 10, 9, 8));
+        emitter.release();
+
+        assertEquals(new Sent("stock", List.of(new StockDelta(10, 0, 5))), emitter.next());
+        assertEquals(new Sent("stock", List.of(new StockDelta(10, 5, 3), new StockDelta(11, null, 7))), emitter.next());
+    }
+
+    @Test
+    void overflowingBufferIsReplacedByResync() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(true);
+        hub.subscribe(1, emitter, false);
+
+        hub.onStockChange(new StockChangeEvent(1, 10, 0, 5));
+        emitter.awaitFirstSend();
+        hub.onStockChange(new StockChangeEvent(1, 11, 0, 1));
+        hub.onStockChange(new StockChangeEvent(1, 12, 0, 2));
+        hub.onStockChange(new StockChangeEvent(1, 13, 0, 3));
+        emitter.release();
+
+        assertEquals(new Sent("stock", List.of(new StockDelta(10, 0, 5))), emitter.next());
+        assertEquals(new Sent("resync", List.of(1L)), emitter.next());
+        assertEquals(new Sent("stock", List.of(new StockDelta(13, 0, 3))), emitter.next());
+    }
+
+    @Test
+    void productDeletionResyncsAndHeartbeatIsAComment() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(false);
+        hub.subscribe(3, emitter, false);
+
+        hub.onProductChange(ProductChangeEvent.deleted(10));
+        assertEquals(new Sent("resync", List.of(3L)), emitter.next());
+
+        hub.heartbeat();
+        assertEquals(new Sent(":heartbeat", List.of()), emitter.next());
+    }
+
+    @Test
+    void clientThatFailsIsUnsubscribed() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(false);
+        emitter.failing = true;
+        hub.subscribe(1, emitter, false);
+        assertEquals(1, hub.subscriberCount(1));
+
+        hub.onStockChange(new StockChangeEvent(1, 10, 0, 5));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (hub.subscriberCount(1) > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, hub.subscriberCount(1));
+    }
+
+    @Test
+    void stalledClientDelaysNobodyAndIsEvicted() throws Exception {
+        ReflectionTestUtils.setField(hub, "sendTimeoutMillis", 100L);
+        RecordingEmitter stalled = new RecordingEmitter(true);
+        RecordingEmitter healthy = new RecordingEmitter(false);
+        hub.subscribe(1, stalled, false);
+        hub.subscribe(2, new RecordingEmitter(true), false);
+        hub.subscribe(2, new RecordingEmitter(true), false);
+        hub.subscribe(1, healthy, false);
+
+        hub.onStockChange(new StockChangeEvent(2, 20, 0, 1));
+        hub.onStockChange(new StockChangeEvent(1, 10, 0, 5));
+        stalled.awaitFirstSend();
+        assertEquals(new Sent("stock", List.of(new StockDelta(10, 0, 5))), healthy.next());
+
+        Thread.sleep(150);
+        hub.evictStalled();
+        assertEquals(1, hub.subscriberCount(1));
+        assertEquals(0, hub.subscriberCount(2));
+    }
+
+    @Test
+    void reconnectingClientIsToldToResync() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(false);
+        hub.subscribe(4, emitter, true);
+
+        assertEquals(new Sent("resync", List.of(4L)), emitter.next());
+    }
+
+    // An event as the client would see it: its name (or ":comment") and its non-text data.
+    record Sent(String name, List<Object> data) {
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private static final Pattern EVENT = Pattern.compile("event:(\\w+)");
+
+        private final BlockingQueue<Sent> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch firstSend = new CountDownLatch(1);
+        private final CountDownLatch gate;
+        volatile boolean failing;
+
+        RecordingEmitter(boolean gated) {
+            gate = new CountDownLatch(gated ? 1 : 0);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("client went away");
+            }
+            firstSend.countDown();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String name = null;
+            List<Object> data = new ArrayList<>();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String text) {
+                    Matcher matcher = EVENT.matcher(text);
+                    if (matcher.find()) {
+                        name = matcher.group(1);
+                    } else if (text.startsWith(":")) {
+                        name = text.strip();
+                    }
+                } else if (part.getData() instanceof List<?> list) {
+                    data.addAll(list);
+                } else {
+                    data.add(part.getData());
+                }
+            }
+            sent.add(new Sent(name, data));
+        }
+
+        void awaitFirstSend() throws InterruptedException {
+            assertTrue(firstSend.await(5, TimeUnit.SECONDS), "nothing was sent");
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        Sent next() throws InterruptedException {
+            Sent next = sent.poll(5, TimeUnit.SECONDS);
+            assertTrue(next != null, "no further event");
+            return next;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.project.code.Service;
+
+import com.project.code.model.ProductChangeEvent;
+import com.project.code.model.StockChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The matrix is fed by events and marked loaded; only the reload test reads an embedded H2 inventory table.
+class StockMatrixTest {
+
+    private StockMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        matrix = new StockMatrix();
+        ReflectionTestUtils.setField(matrix, "loaded", true);
+    }
+
+    @Test
+    void answersUnknownUntilLoaded() {
+        StockMatrix unloaded = new StockMatrix();
+        unloaded.onStockChange(new StockChangeEvent(1, 1, null, 5));
+
+        assertEquals(StockMatrix.UNKNOWN, unloaded.stockLevel(1, 1));
+        assertNull(unloaded.isAvailable(1, 1, 1));
+    }
+
+    @Test
+    void cellsFollowEventsAcrossGrowth() {
+        for (long product = 1; product <= 3000; product++) {
+            matrix.onStockChange(new StockChangeEvent(product % 3 + 1, product, null, (int) (product % 100)));
+        }
+        matrix.onStockChange(new StockChangeEvent(2, 1, 1, -4));
+
+        assertEquals(0, matrix.stockLevel(2, 1));
+        assertEquals(42, matrix.stockLevel(1, 2742));
+        assertEquals(StockMatrix.NOT_STOCKED, matrix.stockLevel(2, 2742));
+        assertEquals(StockMatrix.NOT_STOCKED, matrix.stockLevel(7, 1));
+        assertEquals(Boolean.TRUE, matrix.isAvailable(1, 2742, 42));
+        assertEquals(Boolean.FALSE, matrix.isAvailable(1, 2742, 43));
+    }
+
+    @Test
+    void productDeletionClearsEveryStore() {
+        matrix.onStockChange(new StockChangeEvent(1, 9, null, 5));
+        matrix.onStockChange(new StockChangeEvent(2, 9, null, 6));
+
+        matrix.onProductChange(ProductChangeEvent.deleted(9));
+
+        assertEquals(StockMatrix.NOT_STOCKED, matrix.stockLevel(1, 9));
+        assertEquals(StockMatrix.NOT_STOCKED, matrix.stockLevel(2, 9));
+    }
+
+    @Test
+    void correctionReplacesStaleCell() {
+        matrix.onStockChange(new StockChangeEvent(1, 9, null, 0));
+
+        assertTrue(matrix.correct(1, 9, 25, matrix.sequence()));
+        assertEquals(Boolean.TRUE, matrix.isAvailable(1, 9, 20));
+
+        assertTrue(matrix.correct(1, 9, null, matrix.sequence()));
+        assertEquals(StockMatrix.NOT_STOCKED, matrix.stockLevel(1, 9));
+    }
+
+    @Test
+    void correctionReadBeforeANewerChangeIsDropped() {
+        matrix.onStockChange(new StockChangeEvent(1, 9, null, 3));
+        long readStartedAt = matrix.sequence();
+        matrix.onStockChange(new StockChangeEvent(1, 9, 3, 0));
+        matrix.onStockChange(new StockChangeEvent(1, 10, null, 1));
+
+        assertFalse(matrix.correct(1, 9, 3, readStartedAt));
+        assertEquals(0, matrix.stockLevel(1, 9));
+        assertTrue(matrix.correct(2, 9, 4, readStartedAt));
+        assertEquals(4, matrix.stockLevel(2, 9));
+
+        long beforeDeletion = matrix.sequence();
+        matrix.onProductChange(ProductChangeEvent.deleted(11));
+        assertFalse(matrix.correct(1, 10, 5, beforeDeletion));
+        assertEquals(1, matrix.stockLevel(1, 10));
+    }
+
+    @Test
+    void reloadReplacesEveryStoreRowAndDropsOlderCorrections() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:stock-matrix;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS inventory");
+        jdbcTemplate.execute("CREATE TABLE inventory (product_id BIGINT, store_id BIGINT, stock_level INT)");
+        jdbcTemplate.update("INSERT INTO inventory VALUES (1, 1, 7), (2, 1, 0), (3, 2, 4), (1, 2, NULL)");
+        ReflectionTestUtils.setField(matrix, "jdbcTemplate", jdbcTemplate);
+        matrix.onStockChange(new StockChangeEvent(1, 1, null, 2));
+        matrix.onStockChange(new StockChangeEvent(1, 5, null, 9));
+        matrix.onStockChange(new StockChangeEvent(3, 1, null, 6));
+        long readStartedAt = matrix.sequence();
+
+        matrix.load();
+
+        assertEquals(7, matrix.stockLevel(1, 1));
+        assertEquals(0, matrix.stockLevel(1, 2));
+        assertEquals(StockMatrix.NOT_STOCKED, matrix.stockLevel(1, 5));
+        assertEquals(4, matrix.stockLevel(2, 3));
+        assertEquals(0, matrix.stockLevel(2, 1));
+        assertEquals(StockMatrix.NOT_STOCKED, matrix.stockLevel(3, 1));
+        assertFalse(matrix.correct(1, 1, 2, readStartedAt));
+        assertEquals(7, matrix.stockLevel(1, 1));
+    }
+
+    @Test
+    void readersNeverSeeAnUnwrittenLevelWhileTheMatrixGrows() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = pool.submit(() -> {
+                for (long product = 1; product <= 20_000; product++) {
+                    matrix.onStockChange(new StockChangeEvent(product % 50 + 1, product, null, (int) (product % 97) + 1));
+                }
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int reader = 0; reader < 3; reader++) {
+                readers.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (!writer.isDone()) {
+                        long product = random.nextLong(1, 20_001);
+                        int level = matrix.stockLevel(product % 50 + 1, product);
+                        assertTrue(level == StockMatrix.NOT_STOCKED || level == (int) (product % 97) + 1,
+                                "product " + product + " read " + level);
+                    }
+                }));
+            }
+            writer.get();
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(20_000 % 97 + 1, matrix.stockLevel(1, 20_000));
+    }
+}
@@ -0,0 +1,195 @@
+package com.project.code.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.code.model.BatchRequestItem;
+import com.project.code.model.BatchResponseItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A stub servlet stands in for MVC: GET /read/{ms} and POST /write/{ms} take that long and log when they start
+// and end, /fail throws, and GET /heavy belongs to an admission class with a limit of one.
+class BatchDispatcherTest {
+
+    private BatchDispatcher dispatcher;
+    private StubServlet servlet;
+    private MockHttpServletResponse batchResponse;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionControlProperties.EndpointClass heavy = new AdmissionControlProperties.EndpointClass();
+        heavy.setPatterns(List.of("GET /heavy"));
+        heavy.setInitialLimit(1);
+        heavy.setMinLimit(1);
+        heavy.setMaxLimit(1);
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setClasses(Map.of("heavy", heavy));
+
+        servlet = new StubServlet();
+        dispatcher = new BatchDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "dispatcherServlet", servlet);
+        ReflectionTestUtils.setField(dispatcher, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(dispatcher, "loadSheddingFilter", new LoadSheddingFilter(properties, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(dispatcher, "threads", 8);
+        ReflectionTestUtils.setField(dispatcher, "timeoutMillis", 2000L);
+        dispatcher.start();
+        batchResponse = new MockHttpServletResponse();
+        ReadYourWritesFence.open(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesFence.close();
+        dispatcher.stop();
+    }
+
+    @Test
+    void writesAreBarriersBetweenConcurrentReads() {
+        List<BatchResponseItem> results = dispatch(get("/read/100"), get("/read/100"), post("/write/0"), get("/read/0"));
+
+        assertEquals(List.of(200, 200, 201, 200), statuses(results));
+        assertEquals("/read/100", ((JsonNode) results.get(0).body()).get("path").asText());
+        assertEquals("written", results.get(2).body());
+        List<String> events = servlet.events;
+        assertTrue(events.lastIndexOf("start GET /read/100") < events.indexOf("end GET /read/100"), "reads did not overlap: " + events);
+        assertTrue(events.lastIndexOf("end GET /read/100") < events.indexOf("start POST /write/0"), events.toString());
+        assertTrue(events.indexOf("end POST /write/0") < events.indexOf("start GET /read/0"), events.toString());
+    }
+
+    @Test
+    void laterCookiesReplaceEarlierOnesOfTheSameName() {
+        dispatch(post("/write/0"), post("/write/0"), get("/read/0"));
+
+        Cookie[] cookies = batchResponse.getCookies();
+        assertEquals(1, cookies.length);
+        assertEquals("written", cookies[0].getName());
+        assertEquals("2", cookies[0].getValue());
+    }
+
+    @Test
+    void failureIsReportedForItsSubRequestOnly() {
+        List<BatchResponseItem> results = dispatch(get("/fail"), get("/read/0"));
+
+        assertEquals(List.of(500, 200), statuses(results));
+        assertTrue(((String) results.get(0).body()).contains("handler failed"));
+        assertNull(dispatcher.validate(get("/read/0")));
+        assertNotNull(dispatcher.validate(new BatchRequestItem("TRACE", "/read/0", null)));
+        assertNotNull(dispatcher.validate(new BatchRequestItem("POST", "/api/batch", null)));
+        assertNotNull(dispatcher.validate(new BatchRequestItem("GET", "read/0", null)));
+    }
+
+    @Test
+    void nothingStartsOnceTheDeadlineHasPassed() {
+        ReflectionTestUtils.setField(dispatcher, "timeoutMillis", 200L);
+
+        List<BatchResponseItem> results = dispatch(get("/read/600"), post("/write/0"), get("/read/0"));
+
+        assertEquals(List.of(504, 503, 503), statuses(results));
+        assertEquals("Not executed", results.get(1).body());
+        assertFalse(servlet.events.contains("start POST /write/0"), servlet.events.toString());
+    }
+
+    @Test
+    void startedWriteIsAwaitedPastTheDeadline() {
+        ReflectionTestUtils.setField(dispatcher, "timeoutMillis", 100L);
+
+        List<BatchResponseItem> results = dispatch(post("/write/400"), get("/read/0"));
+
+        assertEquals(List.of(201, 503), statuses(results));
+        assertTrue(servlet.events.contains("end POST /write/400"));
+        assertFalse(servlet.events.contains("start GET /read/0"));
+    }
+
+    @Test
+    void subRequestsAreAdmittedAgainstTheirOwnClass() {
+        List<BatchResponseItem> results = dispatch(get("/heavy"), get("/heavy"), get("/read/0"));
+
+        List<Integer> heavy = new ArrayList<>(statuses(results).subList(0, 2));
+        heavy.sort(null);
+        assertEquals(List.of(200, 503), heavy);
+        assertEquals(200, results.get(2).status());
+        assertEquals(1, servlet.events.stream().filter("start GET /heavy"::equals).count());
+    }
+
+    private List<BatchResponseItem> dispatch(BatchRequestItem... items) {
+        return dispatcher.dispatch(List.of(items), new MockHttpServletRequest("POST", "/api/batch"), batchResponse);
+    }
+
+    private static BatchRequestItem get(String path) {
+        return new BatchRequestItem("GET", path, null);
+    }
+
+    private static BatchRequestItem post(String path) {
+        return new BatchRequestItem("POST", path, null);
+    }
+
+    private static List<Integer> statuses(List<BatchResponseItem> results) {
+        return results.stream().map(BatchResponseItem::status).toList();
+    }
+
+    private static final class StubServlet extends DispatcherServlet {
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+        private final AtomicInteger writes = new AtomicInteger();
+
+        @Override
+        public void service(ServletRequest servletRequest, ServletResponse servletResponse) throws ServletException, IOException {
+            HttpServletRequest request = (HttpServletRequest) servletRequest;
+            HttpServletResponse response = (HttpServletResponse) servletResponse;
+            String call = request.getMethod() + " " + request.getRequestURI();
+            String path = request.getRequestURI();
+            events.add("start " + call);
+            if (path.equals("/fail")) {
+                throw new ServletException("handler failed");
+            }
+            if (path.startsWith("/read/") || path.startsWith("/write/")) {
+                sleep(Long.parseLong(path.substring(path.lastIndexOf('/') + 1)));
+            } else if (path.equals("/heavy")) {
+                sleep(300);
+            }
+            if (request.getMethod().equals("POST")) {
+                response.setStatus(201);
+                response.addCookie(new Cookie("written", Integer.toString(writes.incrementAndGet())));
+                response.setContentType("text/plain");
+                response.getWriter().write("written");
+            } else {
+                response.setContentType("application/json");
+                response.getWriter().write("{\"path\":\"" + path + "\"}");
+            }
+            events.add("end " + call);
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.code.config;
+
+import com.project.code.Service.CatalogVersionService;
+import com.project.code.Service.PriceIndex;
+import com.project.code.Service.StockMatrix;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.EventListener;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Eagerness is read off the bean types themselves; nothing is instantiated.
+class FastStartConfigTest {
+
+    private final LazyInitializationExcludeFilter filter = FastStartConfig.hotPathBeans();
+
+    @Test
+    void beansWithWorkOfTheirOwnAreCreatedAtStartup() {
+        assertTrue(filter.isExcluded("stockMatrix", null, StockMatrix.class));
+        assertTrue(filter.isExcluded("priceIndex", null, PriceIndex.class));
+        assertTrue(filter.isExcluded("catalogVersionService", null, CatalogVersionService.class));
+        assertTrue(filter.isExcluded("anyEvent", null, AnyEventListener.class));
+    }
+
+    @Test
+    void otherBeansStayLazy() {
+        assertFalse(filter.isExcluded("plain", null, PlainService.class));
+        assertFalse(filter.isExcluded("otherEvent", null, OtherEventListener.class));
+        assertFalse(filter.isExcluded("unknown", null, null));
+    }
+
+    static class PlainService {
+
+        public void work() {
+        }
+    }
+
+    static class AnyEventListener {
+
+        @EventListener
+        public void on(ApplicationEvent event) {
+        }
+    }
+
+    static class OtherEventListener {
+
+        @EventListener
+        public void on(OtherEvent event) {
+        }
+    }
+
+    static class OtherEvent extends ApplicationEvent {
+
+        OtherEvent(Object source) {
+            super(source);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.project.code.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two embedded H2 databases stand in for the primary and a replica; each holds a marker row naming itself.
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        routingDataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica), 60_000);
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        ReadYourWritesFence.open(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesFence.close();
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        assertEquals("replica", readOnly.execute(status -> marker()));
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        assertEquals("primary", readWrite.execute(status -> marker()));
+    }
+
+    @Test
+    void readAfterCommittedWriteStaysOnPrimary() {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET touched = TRUE"));
+        assertEquals("primary", readOnly.execute(status -> marker()));
+    }
+
+    @Test
+    void futureFenceDoesNotPinReadsToPrimary() {
+        ReadYourWritesFence.open(System.currentTimeMillis() + 86_400_000L);
+        assertEquals("replica", readOnly.execute(status -> marker()));
+    }
+
+    @Test
+    void onlyFencedCallersArePinnedToPrimary() {
+        assertFalse(routingDataSource.pinnedToPrimary());
+        ReadYourWritesFence.open(System.currentTimeMillis());
+        assertTrue(routingDataSource.pinnedToPrimary());
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() {
+        routingDataSource.updateReplicaState(Set.of("replica-0"), 0);
+        assertEquals("primary", readOnly.execute(status -> marker()));
+    }
+
+    private String marker() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP TABLE IF EXISTS marker");
+        jdbc.execute("CREATE TABLE marker (name VARCHAR(20), touched BOOLEAN DEFAULT FALSE)");
+        jdbc.update("INSERT INTO marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -351,7 +351,7 @@ async function createData(products, storeId) {
 
         const stockLevel = document.createElement('td');
         stockLevel.classList.add('expandable');
-        stockLevel.textContent = product.inventory[0].stockLevel;
+        stockLevel.textContent = product.stockLevel;
 
         const reviewCol = document.createElement('td');
         const reviewBtn = document.createElement('button');
@@ -369,7 +369,7 @@ async function createData(products, storeId) {
         button.classList.add('btn', 'btn-warning');
         button.textContent = 'Edit';
         button.addEventListener('click', () => {
-            window.location = `edit-product.html?productId=${product.id}&storeId=${storeId}&stockLevel=${product.inventory[0].stockLevel}`;
+            window.location = `edit-product.html?productId=${product.id}&storeId=${storeId}&stockLevel=${product.stockLevel}`;
 
         });
         buttoncolumn.appendChild(button);